@@ -0,0 +1,116 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.benchmark;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.transition.CascadedTransition;
+import com.avrsandbox.fsa.core.transition.ConcurrentCascadedTransition;
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures filling a cascade of states and draining it through a {@link TransitionalManager},
+ * for the {@link CascadedTransition} and the {@link ConcurrentCascadedTransition} over both queue implementations.
+ *
+ * <p>
+ * The cascades are drained iteratively until empty, rather than by catching the
+ * {@link com.avrsandbox.fsa.core.state.NextStateNotFoundException}, so the exception cost is left out.
+ * </p>
+ *
+ * @author pavl_g
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("rawtypes")
+public class CascadeBenchmark {
+
+    @Param({"ArrayDeque", "LinkedList"})
+    private String queue;
+
+    @Param({"false", "true"})
+    private boolean concurrent;
+
+    @Param({"64"})
+    private int length;
+
+    private final Integer input = 1;
+    private AutoState<Integer, Integer>[] states;
+    private CascadedTransition<Integer, Integer> cascade;
+    private TransitionalManager<Integer, Integer> transitionalManager;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        states = new AutoState[length];
+        for (int i = 0; i < length; i++) {
+            states[i] = new BenchmarkState();
+        }
+        final Queue<AutoState> queueObject = "ArrayDeque".equals(queue) ? new ArrayDeque<>() : new LinkedList<>();
+        cascade = concurrent ? new ConcurrentCascadedTransition<>("Cascade", queueObject)
+                             : new CascadedTransition<>("Cascade", queueObject);
+        transitionalManager = new TransitionalManager<>();
+    }
+
+    @Benchmark
+    public int fillAndDrain() {
+        for (AutoState<Integer, Integer> autoState : states) {
+            cascade.assignNextState(autoState);
+        }
+        int transitions = 0;
+        AutoState<Integer, Integer> nextState = cascade.getPresentState();
+        while (nextState != null) {
+            transitionalManager.assignNextState(nextState);
+            transitionalManager.transit(input, null);
+            nextState = cascade.getNextState();
+            transitions++;
+        }
+        return transitions;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.benchmark;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.CloneType;
+import com.avrsandbox.fsa.core.state.StateCopier;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the overhead of {@link AutoState#clone(CloneType)} and {@link AutoState#clone(CloneType, StateCopier)},
+ * and of invoking a deep clone proxy against the state itself.
+ *
+ * @author pavl_g
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloneBenchmark {
+
+    private final AutoState<Integer, Integer> autoState = new BenchmarkState();
+    private final AutoState<Integer, Integer> proxy = autoState.clone(CloneType.DEEP);
+    private final StateCopier<Integer, Integer> copier = state -> new BenchmarkState();
+    private final Integer input = 1;
+
+    @Benchmark
+    public AutoState<Integer, Integer> cloneDeepProxy() {
+        return autoState.clone(CloneType.DEEP);
+    }
+
+    @Benchmark
+    public AutoState<Integer, Integer> cloneDeepCopier() {
+        return autoState.clone(CloneType.DEEP, copier);
+    }
+
+    @Benchmark
+    public AutoState<Integer, Integer> cloneSuperficial() {
+        return autoState.clone(CloneType.SUPERFICIAL);
+    }
+
+    @Benchmark
+    public void invokeState(Blackhole blackhole) {
+        autoState.invoke(input);
+        blackhole.consume(autoState.getStateTracer());
+    }
+
+    @Benchmark
+    public void invokeDeepProxy(Blackhole blackhole) {
+        proxy.invoke(input);
+        blackhole.consume(proxy.getStateTracer());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.benchmark;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.deterministic.DeterministicManager;
+import com.avrsandbox.fsa.core.deterministic.TransitionPathRegistry;
+import com.avrsandbox.fsa.core.transition.TransitionPath;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of registering the transition paths of a {@link DeterministicManager}, against
+ * the same transitions on a plain {@link TransitionalManager}.
+ *
+ * <p>
+ * The paths rotate over a pool 4 times larger than a bounded registry, so each registration is unique
+ * and evicts the oldest registered path.
+ * </p>
+ *
+ * @author pavl_g
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeterministicRegistrationBenchmark {
+
+    private static final int REGISTRY_CAPACITY = 1024;
+    private static final int PATHS = REGISTRY_CAPACITY * 4;
+
+    private final TransitionPath<Integer, Integer>[] paths = createPaths();
+    private DeterministicManager<Integer, Integer> deterministicManager;
+    private TransitionalManager<Integer, Integer> transitionalManager;
+    private int index;
+
+    @Setup
+    public void setup() {
+        deterministicManager = new DeterministicManager<>(new TransitionPathRegistry(REGISTRY_CAPACITY));
+        transitionalManager = new TransitionalManager<>();
+    }
+
+    @Benchmark
+    public void transitDeterministic() {
+        deterministicManager.transit(nextPath(), null);
+    }
+
+    @Benchmark
+    public void transitBaseline() {
+        transitionalManager.transit(nextPath(), null);
+    }
+
+    /**
+     * Registers into a single registry from 4 threads, to measure the registry under contention.
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean registerContended(SharedRegistry sharedRegistry) {
+        return sharedRegistry.register();
+    }
+
+    private TransitionPath<Integer, Integer> nextPath() {
+        final TransitionPath<Integer, Integer> path = paths[index];
+        index = (index + 1) % PATHS;
+        return path;
+    }
+
+    /**
+     * A registry and a path rotation shared by all the benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedRegistry {
+
+        private final TransitionPath<Integer, Integer>[] paths = createPaths();
+        private final TransitionPathRegistry registry = new TransitionPathRegistry(REGISTRY_CAPACITY);
+        private final AtomicInteger index = new AtomicInteger();
+
+        boolean register() {
+            /* PATHS is a power of two, so masking wraps the rotation */
+            return registry.register(paths[index.getAndIncrement() & (PATHS - 1)]);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static TransitionPath<Integer, Integer>[] createPaths() {
+        final TransitionPath<Integer, Integer>[] paths = new TransitionPath[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            final BenchmarkState presentState = new BenchmarkState();
+            presentState.setInput(i);
+            paths[i] = new TransitionPath<>("Path-" + i, presentState, new BenchmarkState());
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.benchmark;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import com.avrsandbox.fsa.example.simple.ndfsa.BitsAdder;
+import com.avrsandbox.fsa.example.simple.ndfsa.CarryState;
+import com.avrsandbox.fsa.example.simple.ndfsa.NonCarryState;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serial adder workload of {@link com.avrsandbox.fsa.example.simple.ndfsa.SerialAdder}, adding
+ * the same 9 pairs of bits without the latency periods; the states loggers are silenced.
+ *
+ * @author pavl_g
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerialAdderBenchmark {
+
+    /* holds a strong reference to the silenced logger, so its level isn't lost */
+    private static final Logger STATES_LOGGER = Logger.getLogger(CarryState.class.getName());
+
+    private final BitsAdder[] adders = {
+            new BitsAdder(0, 0), new BitsAdder(0, 1), new BitsAdder(1, 0),
+            new BitsAdder(1, 1), new BitsAdder(0, 1), new BitsAdder(1, 0),
+            new BitsAdder(1, 1), new BitsAdder(0, 0), new BitsAdder(0, 0)
+    };
+    private final AutoState<BitsAdder, Integer> nonCarryState = new NonCarryState();
+    private final AutoState<BitsAdder, Integer> carryState = new CarryState();
+    private TransitionalManager<BitsAdder, Integer> transitionalManager;
+    private TransitionListener<BitsAdder, Integer> adderListener;
+
+    @Setup
+    public void setup() {
+        STATES_LOGGER.setLevel(Level.OFF);
+        transitionalManager = new TransitionalManager<>();
+        adderListener = presentState -> transitionalManager.assignNextState(
+                presentState.getStateTracer() == 1 ? carryState : nonCarryState);
+    }
+
+    @Benchmark
+    public int addBits() {
+        transitionalManager.assignNextState(nonCarryState);
+        int sum = 0;
+        for (BitsAdder adder : adders) {
+            transitionalManager.transit(adder, adderListener);
+            sum += adder.output;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.benchmark;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.specialized.SpecializedManager;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of a single {@link TransitionalManager#transit(Object, TransitionListener)} toggling
+ * between 2 states, with the regular and the specialized dispatching.
+ *
+ * @author pavl_g
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransitBenchmark {
+
+    private final BenchmarkState stateA = new BenchmarkState();
+    private final BenchmarkState stateB = new BenchmarkState();
+    private final Integer input = 1;
+    private TransitionalManager<Integer, Integer> transitionalManager;
+    private TransitionalManager<Integer, Integer> specializedManager;
+    private TransitionListener<Integer, Integer> toggle;
+    private TransitionListener<Integer, Integer> specializedToggle;
+
+    @Setup
+    public void setup() {
+        transitionalManager = new TransitionalManager<>();
+        specializedManager = new SpecializedManager<>(stateA, stateB);
+        toggle = presentState -> transitionalManager.assignNextState(presentState == stateA ? stateB : stateA);
+        specializedToggle = presentState -> specializedManager.assignNextState(presentState == stateA ? stateB : stateA);
+        transitionalManager.assignNextState(stateA);
+        specializedManager.assignNextState(stateA);
+    }
+
+    @Benchmark
+    public void transit() {
+        transitionalManager.transit(input, toggle);
+    }
+
+    @Benchmark
+    public void transitSpecialized() {
+        specializedManager.transit(input, specializedToggle);
+    }
+
+    @Benchmark
+    public void transitWithoutListener() {
+        transitionalManager.transit(input, null);
+    }
+}
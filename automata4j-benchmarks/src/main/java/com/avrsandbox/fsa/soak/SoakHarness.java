@@ -0,0 +1,227 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.soak;
+
+import com.avrsandbox.fsa.core.metrics.HistogramSnapshot;
+import com.avrsandbox.fsa.core.metrics.LatencyHistogram;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A load-generation harness, runs a population of machines over a synthetic state graph for a long period,
+ * reporting the sustained throughput, the transit latency percentiles, the heap footprint per machine and
+ * the garbage collection behavior.
+ *
+ * <p>
+ * Each worker thread owns a partition of the machines, and feeds random input symbols to machines selected
+ * from its partition either uniformly or with a zipf-like skew (log-uniform ranks); one in every
+ * {@link SoakHarness#SAMPLING_PERIOD} transits is timed.
+ * </p>
+ *
+ * <p>
+ * Use the 'soak' gradle task, e.g: {@code ./gradlew :automata4j-benchmarks:soak -Pargs="--machines=1000000 --duration=600"},
+ * grant a large enough heap for the larger populations (i.e: 10M machines).
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class SoakHarness {
+
+    private static final int SAMPLING_PERIOD = 64;
+
+    private final SoakOptions options;
+    private final SyntheticGraph graph;
+    private final LongAdder transits = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private SoakMachine[] machines;
+    private volatile boolean running = true;
+
+    private SoakHarness(SoakOptions options) {
+        this.options = options;
+        this.graph = new SyntheticGraph(options.states, options.symbols, options.seed);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final SoakOptions options = SoakOptions.parse(args);
+        System.out.println("Soak options: " + options);
+        final SoakHarness harness = new SoakHarness(options);
+        harness.populate();
+        harness.run();
+    }
+
+    /**
+     * Instantiates the machines, and reports their heap footprint.
+     */
+    private void populate() {
+        final long before = settledHeap();
+        final long start = System.nanoTime();
+        machines = new SoakMachine[options.machines];
+        for (int i = 0; i < machines.length; i++) {
+            machines[i] = new SoakMachine(graph);
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long after = settledHeap();
+        System.out.printf("Populated %,d machines in %,d ms, heap %,d -> %,d bytes, %.1f bytes per machine%n",
+                machines.length, TimeUnit.NANOSECONDS.toMillis(elapsed), before, after,
+                (after - before) / (double) machines.length);
+    }
+
+    private void run() throws InterruptedException {
+        final Thread[] workers = new Thread[options.threads];
+        for (int i = 0; i < workers.length; i++) {
+            final int partition = i;
+            workers[i] = new Thread(() -> work(partition), "Soak-Worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+
+        /* the baselines exclude the collections forced while populating */
+        final long startTime = System.nanoTime();
+        final long startCollections = collections();
+        final long startCollectionTime = collectionTime();
+        final long end = startTime + TimeUnit.SECONDS.toNanos(options.duration);
+        long lastTime = startTime;
+        long lastTransits = 0;
+        long lastCollections = startCollections;
+        long lastCollectionTime = startCollectionTime;
+        long totalTransits = 0;
+        while (System.nanoTime() < end) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(Math.min(options.report,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(end - System.nanoTime())))));
+            final long now = System.nanoTime();
+            totalTransits = transits.sum();
+            final long collectionsCount = collections();
+            final long collectionTime = collectionTime();
+            final HistogramSnapshot snapshot = latency.snapshot();
+            latency.reset();
+            System.out.printf("%,.0f transits/s ; latency ns p50=%,d p99=%,d p99.9=%,d max=%,d ; "
+                            + "heap used=%,d bytes ; gc count=%d time=%d ms%n",
+                    (totalTransits - lastTransits) / ((now - lastTime) / 1e9),
+                    snapshot.getValueAtPercentile(50), snapshot.getValueAtPercentile(99),
+                    snapshot.getValueAtPercentile(99.9), snapshot.getMax(),
+                    memory.getHeapMemoryUsage().getUsed(),
+                    collectionsCount - lastCollections, collectionTime - lastCollectionTime);
+            lastTime = now;
+            lastTransits = totalTransits;
+            lastCollections = collectionsCount;
+            lastCollectionTime = collectionTime;
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        final double elapsed = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("Finished %,d transits in %.1f s, %,.0f transits/s, gc count=%d time=%d ms%n",
+                transits.sum(), elapsed, transits.sum() / elapsed,
+                collections() - startCollections, collectionTime() - startCollectionTime);
+    }
+
+    /**
+     * Feeds the machines of a partition, the partition is the machines indices congruent to the worker index.
+     */
+    private void work(int partition) {
+        final SplittableRandom random = new SplittableRandom(options.seed + partition);
+        final int threads = options.threads;
+        final int size = (machines.length - partition + threads - 1) / threads;
+        if (size <= 0) {
+            return;
+        }
+        final boolean zipf = "zipf".equals(options.distribution);
+        final double logSize = Math.log(size);
+        final SoakMachine[] current = new SoakMachine[1];
+        /* preboxed input symbols, so feeding the machines doesn't allocate */
+        final Integer[] symbols = new Integer[options.symbols];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = i;
+        }
+        /*
+         * a single listener per worker, it assigns the next state of the machine being fed; the entered state
+         * is pending until the next transit starts, so the present state still finishes as itself
+         */
+        final TransitionListener<Integer, Integer> listener = presentState -> {
+            final SoakMachine machine = current[0];
+            machine.assignNextState(machine.context.enter(graph.getState(machine.context.getStateTracer())));
+        };
+        long transited = 0;
+        while (running) {
+            final int rank = zipf ? (int) Math.min(size - 1, Math.exp(random.nextDouble() * logSize) - 1)
+                                  : random.nextInt(size);
+            final SoakMachine machine = machines[partition + rank * threads];
+            final Integer input = symbols[random.nextInt(symbols.length)];
+            current[0] = machine;
+            if ((++transited & (SAMPLING_PERIOD - 1)) == 0) {
+                final long start = System.nanoTime();
+                machine.transit(input, listener);
+                latency.record(System.nanoTime() - start);
+                transits.add(SAMPLING_PERIOD);
+            } else {
+                machine.transit(input, listener);
+            }
+        }
+    }
+
+    private long settledHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long collectionTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+}
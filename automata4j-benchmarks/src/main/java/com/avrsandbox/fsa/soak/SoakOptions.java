@@ -0,0 +1,140 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.soak;
+
+/**
+ * The command-line options of the {@link SoakHarness}, in the form {@code --name=value}.
+ *
+ * @author pavl_g
+ */
+public final class SoakOptions {
+
+    /**
+     * The number of machines.
+     */
+    int machines = 100_000;
+
+    /**
+     * The number of states of the synthetic graph.
+     */
+    int states = 16;
+
+    /**
+     * The number of input symbols of the synthetic graph.
+     */
+    int symbols = 4;
+
+    /**
+     * The number of worker threads.
+     */
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The run duration in seconds.
+     */
+    long duration = 60;
+
+    /**
+     * The period between two reports in seconds.
+     */
+    long report = 5;
+
+    /**
+     * The machines selection distribution, either "uniform" or "zipf".
+     */
+    String distribution = "uniform";
+
+    /**
+     * The seed of the synthetic graph and the inputs.
+     */
+    long seed = 42;
+
+    /**
+     * Parses the options from command-line arguments.
+     *
+     * @param args the arguments in the form {@code --name=value}
+     * @return a new options object
+     */
+    public static SoakOptions parse(String[] args) {
+        final SoakOptions options = new SoakOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Unrecognized argument " + arg + ", expected --name=value!");
+            }
+            final String name = arg.substring(2, arg.indexOf('='));
+            final String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "machines":
+                    options.machines = Integer.parseInt(value.replace("_", ""));
+                    break;
+                case "states":
+                    options.states = Integer.parseInt(value);
+                    break;
+                case "symbols":
+                    options.symbols = Integer.parseInt(value);
+                    break;
+                case "threads":
+                    options.threads = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    options.duration = Long.parseLong(value);
+                    break;
+                case "report":
+                    options.report = Long.parseLong(value);
+                    break;
+                case "distribution":
+                    if (!"uniform".equals(value) && !"zipf".equals(value)) {
+                        throw new IllegalArgumentException("Distribution must be either uniform or zipf!");
+                    }
+                    options.distribution = value;
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized option " + name + "!");
+            }
+        }
+        if (options.machines <= 0 || options.states <= 0 || options.symbols <= 0 || options.threads <= 0
+                || options.duration <= 0 || options.report <= 0) {
+            throw new IllegalArgumentException("Numeric options must be positive!");
+        }
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return "machines=" + machines + ", states=" + states + ", symbols=" + symbols + ", threads=" + threads
+                + ", duration=" + duration + "s, report=" + report + "s, distribution=" + distribution
+                + ", seed=" + seed;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.soak;
+
+import com.avrsandbox.fsa.core.state.StateContext;
+import com.avrsandbox.fsa.core.state.StatelessState;
+import java.util.SplittableRandom;
+
+/**
+ * A random, shared graph of {@link StatelessState}s, each state maps an input symbol to a next state.
+ *
+ * <p>
+ * The states are flyweights, so the per-machine footprint is the machine and its {@link StateContext} only.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class SyntheticGraph {
+
+    private final GraphState[] states;
+
+    /**
+     * Instantiates a random graph.
+     *
+     * @param states the number of states
+     * @param symbols the number of input symbols
+     * @param seed the graph seed
+     */
+    public SyntheticGraph(int states, int symbols, long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        this.states = new GraphState[states];
+        for (int i = 0; i < states; i++) {
+            final int[] next = new int[symbols];
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                next[symbol] = random.nextInt(states);
+            }
+            this.states[i] = new GraphState(i, next);
+        }
+    }
+
+    /**
+     * Retrieves the initial state of the graph.
+     *
+     * @return the initial state
+     */
+    public StatelessState<Integer, Integer> getInitialState() {
+        return states[0];
+    }
+
+    /**
+     * Retrieves a state by its id.
+     *
+     * @param id the state id, as traced by the states
+     * @return the state object
+     */
+    public StatelessState<Integer, Integer> getState(int id) {
+        return states[id];
+    }
+
+    /**
+     * A graph state, traces the id of its next state on the context.
+     */
+    private static final class GraphState implements StatelessState<Integer, Integer> {
+
+        private final int id;
+        private final int[] next;
+
+        private GraphState(int id, int[] next) {
+            this.id = id;
+            this.next = next;
+        }
+
+        @Override
+        public void invoke(StateContext<Integer, Integer> context, Integer input) {
+            context.setStateTracer(next[input]);
+        }
+
+        @Override
+        public String toString() {
+            return "S" + id;
+        }
+    }
+}
@@ -31,13 +31,13 @@
 
 package com.avrsandbox.fsa.example.cascadable;
 
+import com.avrsandbox.fsa.core.TransitStatus;
+import com.avrsandbox.fsa.core.listener.ListenerRegistry;
 import com.avrsandbox.fsa.core.state.NextStateAssigner;
 import com.avrsandbox.fsa.core.TransitionalManager;
 import com.avrsandbox.fsa.core.state.AutoState;
-import com.avrsandbox.fsa.core.state.NextStateNotFoundException;
 import com.avrsandbox.fsa.core.transition.CascadedTransition;
 import com.avrsandbox.fsa.core.transition.TransitionPath;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -69,17 +69,36 @@ public final class TestCascadeTransitions {
         /* incrementally assigns and transits to next states */
         transitionalManager.transit(transitionPath, presentState ->
                 transit(transitionalManager, transitionPath));
+
+        /* the same recursive cascade, fanning out its transitions through a registry with a batch listener */
+        final TransitionPath<String, String> batchedPath = new CascadedTransition<>("Batched Cascade",
+                                                                    CascadedTransition.QueueImplementation.ArrayDeque);
+        batchedPath.assignPresentState(autoState);
+        batchedPath.assignNextState(autoState1);
+        batchedPath.assignNextState(autoState2);
+        batchedPath.assignNextState(autoState3);
+
+        final ListenerRegistry<String, String> registry = new ListenerRegistry<>();
+        registry.addBatchListener((states, count) -> {
+            final StringBuilder batch = new StringBuilder("Batch:");
+            for (int i = 0; i < count; i++) {
+                batch.append(' ').append(states[i].getInput());
+            }
+            /* the batch is in the transitions order, and it's flushed when the cascade is drained */
+            System.out.println(batch);
+        });
+        registry.addListener(presentState ->
+                transitionalManager.tryTransit(new NextStateAssigner<>(transitionalManager, batchedPath, registry)));
+        transitionalManager.transit(batchedPath, registry);
     }
 
     public static <I extends String, O extends String> void transit(
             TransitionalManager<I, O> transitionalManager,
             TransitionPath<I, O> transitionPath) {
-       try {
-           transitionalManager.transit(new NextStateAssigner<>(transitionalManager, transitionPath,
-                   presentState -> transit(transitionalManager, transitionPath)));
-       } catch (NextStateNotFoundException exception) {
-           Logger.getLogger(TestCascadeTransitions.class.getName()).
-                   log(Level.WARNING, "Dead-end of the finite-states!", exception);
+       final TransitStatus status = transitionalManager.tryTransit(new NextStateAssigner<>(transitionalManager,
+               transitionPath, presentState -> transit(transitionalManager, transitionPath)));
+       if (status == TransitStatus.DEAD_END) {
+           Logger.getLogger(TestCascadeTransitions.class.getName()).warning("Dead-end of the finite-states!");
        }
     }
 
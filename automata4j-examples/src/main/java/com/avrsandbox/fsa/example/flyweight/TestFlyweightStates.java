@@ -0,0 +1,109 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.example.flyweight;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.StateContext;
+import com.avrsandbox.fsa.core.state.StatelessState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+
+/**
+ * Examines and Tests sharing a single graph of {@link StatelessState}s between several turnstile machines,
+ * each machine allocates only a {@link StateContext}.
+ *
+ * <p>
+ * The next state is entered from the transition listener, while the present state is still finishing,
+ * the logs show each state starting, invoking and finishing in order.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class TestFlyweightStates {
+
+    /* the shared, immutable state graph */
+    private static final StatelessState<String, Boolean> LOCKED = new TurnstileState("Locked", "coin");
+    private static final StatelessState<String, Boolean> UNLOCKED = new TurnstileState("Unlocked", "push");
+
+    public static void main(String[] args) {
+        final String[] inputs = {"push", "coin", "coin", "push"};
+        for (int i = 0; i < 3; i++) {
+            final StateContext<String, Boolean> context = new StateContext<>("Turnstile-" + i);
+            final TransitionalManager<String, Boolean> transitionalManager = new TransitionalManager<>();
+            transitionalManager.assignNextState(context.enter(LOCKED));
+
+            final TransitionListener<String, Boolean> listener = presentState -> {
+                /* the tracer tells whether the state should be toggled */
+                if (!presentState.getStateTracer()) {
+                    return;
+                }
+                final StatelessState<String, Boolean> state = context.getState() == LOCKED ? UNLOCKED : LOCKED;
+                transitionalManager.assignNextState(context.enter(state));
+            };
+
+            for (String input : inputs) {
+                transitionalManager.transit(input, listener);
+            }
+        }
+    }
+
+    private static final class TurnstileState implements StatelessState<String, Boolean> {
+
+        private final String name;
+        private final String toggle;
+
+        private TurnstileState(String name, String toggle) {
+            this.name = name;
+            this.toggle = toggle;
+        }
+
+        @Override
+        public void onStart(StateContext<String, Boolean> context) {
+            System.out.println(context.getAttachment() + " enters " + name);
+        }
+
+        @Override
+        public void invoke(StateContext<String, Boolean> context, String input) {
+            context.setStateTracer(toggle.equals(input));
+            System.out.println(context.getAttachment() + " is " + name + " ; input = " + input);
+        }
+
+        @Override
+        public void onFinish(StateContext<String, Boolean> context) {
+            System.out.println(context.getAttachment() + " exits " + name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
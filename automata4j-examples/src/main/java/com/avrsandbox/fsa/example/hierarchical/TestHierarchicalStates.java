@@ -0,0 +1,114 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.example.hierarchical;
+
+import com.avrsandbox.fsa.core.hierarchy.CompositeState;
+import com.avrsandbox.fsa.core.hierarchy.HierarchicalManager;
+import com.avrsandbox.fsa.core.rule.RuleTable;
+import com.avrsandbox.fsa.core.rule.TransitionRules;
+import com.avrsandbox.fsa.core.state.AutoState;
+
+/**
+ * Examines and Tests a hierarchical printer machine, the "cancel" input is declared once on the
+ * composite "Printing" state, and it's bubbled from all of its sub-states.
+ *
+ * @author pavl_g
+ */
+public final class TestHierarchicalStates {
+
+    public static void main(String[] args) {
+        final PrinterState idle = new PrinterState("Idle");
+        final PrinterState heating = new PrinterState("Heating");
+        final PrinterState feeding = new PrinterState("Feeding");
+        final CompositeState<String, String> printing = new CompositeState<>();
+        final CompositeState<String, String> printer = new CompositeState<>();
+        printing.add(heating).add(feeding);
+        printer.add(idle).add(printing);
+
+        final RuleTable<String, String> rules = new TransitionRules<String, String>()
+                .from(idle).on("print").to(printing)
+                .from(heating).on("ready").to(feeding)
+                .from(feeding).on("done").to(idle)
+                .from(printing).on("cancel").to(idle)
+                .compile();
+
+        final HierarchicalManager<String, String> hierarchicalManager = new HierarchicalManager<>(printer, rules);
+        for (String input : new String[] {"print", "ready", "cancel", "print", "ready", "done"}) {
+            hierarchicalManager.transit(input, null);
+        }
+    }
+
+    private static final class PrinterState implements AutoState<String, String> {
+
+        private final String name;
+        private String input;
+
+        private PrinterState(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onStart() {
+            System.out.println("Entered " + name);
+        }
+
+        @Override
+        public void invoke(String input) {
+            System.out.println(name + " handles " + input);
+        }
+
+        @Override
+        public void onFinish() {
+            System.out.println("Exited " + name);
+        }
+
+        @Override
+        public String getInput() {
+            return input;
+        }
+
+        @Override
+        public void setInput(String input) {
+            this.input = input;
+        }
+
+        @Override
+        public String getStateTracer() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.example.nio;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.nio.Connection;
+import com.avrsandbox.fsa.nio.ConnectionHandler;
+import com.avrsandbox.fsa.nio.MachineServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Examines and Tests a line protocol machine served over loopback, a "Handshake" state greets the client,
+ * then a "Session" state echoes the lines in upper case until the client says "BYE".
+ *
+ * <p>
+ * The client splits its lines across several writes, the states wait for the complete lines without
+ * copying or reassembling the read bytes.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class TestLineProtocol implements ConnectionHandler<String> {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        try (MachineServer<String> server = new MachineServer<>(new TestLineProtocol(), 2, 1024)) {
+            final SocketAddress address = server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (Socket client = new Socket()) {
+                client.connect(address);
+                final OutputStream output = client.getOutputStream();
+                final BufferedReader input = new BufferedReader(
+                        new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                for (String chunk : new String[] {"HEL", "LO pavl\nfinite ", "states\n", "BYE\n"}) {
+                    output.write(chunk.getBytes(StandardCharsets.US_ASCII));
+                    output.flush();
+                    Thread.sleep(50);
+                }
+                String line;
+                while ((line = input.readLine()) != null) {
+                    System.out.println("Client receives " + line);
+                }
+            }
+        }
+    }
+
+    @Override
+    public TransitionalManager<Connection<String>, String> onOpen(Connection<String> connection) {
+        final TransitionalManager<Connection<String>, String> manager = new TransitionalManager<>("LineProtocol");
+        manager.assignNextState(new HandshakeState(new SessionState()));
+        return manager;
+    }
+
+    @Override
+    public void onClose(Connection<String> connection, Throwable cause) {
+        System.out.println("Connection closed " + (cause == null ? "normally" : "by " + cause));
+    }
+
+    /**
+     * Consumes a complete line from the read buffer.
+     *
+     * @return the line without its terminator, or null if the line isn't complete yet
+     */
+    private static String readLine(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                final byte[] line = new byte[i - buffer.position()];
+                buffer.get(line);
+                buffer.get();
+                return new String(line, StandardCharsets.US_ASCII);
+            }
+        }
+        return null;
+    }
+
+    private static void writeLine(Connection<String> connection, String line) {
+        connection.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private abstract static class LineState implements AutoState<Connection<String>, String> {
+
+        private Connection<String> input;
+        protected String tracer;
+
+        @Override
+        public void onStart() {
+        }
+
+        @Override
+        public void invoke(Connection<String> connection) {
+            final String line = readLine(connection.getReadBuffer());
+            if (line != null) {
+                tracer = line;
+                onLine(connection, line);
+            }
+        }
+
+        protected abstract void onLine(Connection<String> connection, String line);
+
+        @Override
+        public void onFinish() {
+        }
+
+        @Override
+        public Connection<String> getInput() {
+            return input;
+        }
+
+        @Override
+        public void setInput(Connection<String> input) {
+            this.input = input;
+        }
+
+        @Override
+        public String getStateTracer() {
+            return tracer;
+        }
+    }
+
+    private static final class HandshakeState extends LineState {
+
+        private final SessionState session;
+
+        private HandshakeState(SessionState session) {
+            this.session = session;
+        }
+
+        @Override
+        protected void onLine(Connection<String> connection, String line) {
+            if (!line.startsWith("HELLO ")) {
+                writeLine(connection, "ERROR expected HELLO");
+                connection.close();
+                return;
+            }
+            writeLine(connection, "WELCOME " + line.substring("HELLO ".length()));
+            connection.getManager().assignNextState(session);
+        }
+    }
+
+    private static final class SessionState extends LineState {
+
+        @Override
+        protected void onLine(Connection<String> connection, String line) {
+            if ("BYE".equals(line)) {
+                writeLine(connection, "BYE");
+                connection.close();
+                return;
+            }
+            writeLine(connection, line.toUpperCase());
+        }
+    }
+}
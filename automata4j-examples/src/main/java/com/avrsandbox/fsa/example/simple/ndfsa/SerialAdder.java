@@ -99,7 +99,7 @@ public final class SerialAdder extends Thread implements TransitionListener<Bits
         AutoState<BitsAdder, Integer> stateA = new NonCarryState();
         final AutoState<BitsAdder, Integer> stateB = new CarryState();
         /* Test deep copy */
-        final AutoState<BitsAdder, Integer> copyA = stateA.clone(CloneType.DEEP);
+        final AutoState<BitsAdder, Integer> copyA = stateA.clone(CloneType.DEEP, state -> new NonCarryState());
         System.out.println(stateA);
         System.out.println(copyA);
 
@@ -0,0 +1,105 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.example.timeout;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.timeout.TimedManager;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Examines and Tests a session machine, an "Active" session expires if no request arrives within 200 milliseconds.
+ *
+ * @author pavl_g
+ */
+public final class TestStateTimeouts {
+
+    public static void main(String[] args) throws InterruptedException {
+        final SessionState active = new SessionState("Active");
+        final SessionState expired = new SessionState("Expired");
+        final CountDownLatch expiration = new CountDownLatch(1);
+
+        final TimedManager<String, String> timedManager = new TimedManager<>();
+        timedManager.setTimeout(active, 200, TimeUnit.MILLISECONDS, expired);
+        timedManager.setTimeoutListener(presentState -> expiration.countDown());
+        timedManager.assignNextState(active);
+
+        /* each request re-arms the session timeout */
+        for (String request : new String[] {"login", "browse", "checkout"}) {
+            timedManager.transit(100, request, null);
+        }
+        expiration.await();
+    }
+
+    private static final class SessionState implements AutoState<String, String> {
+
+        private final String name;
+        private String input;
+
+        private SessionState(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onStart() {
+        }
+
+        @Override
+        public void invoke(String input) {
+            System.out.println(name + " session handles " + input);
+        }
+
+        @Override
+        public void onFinish() {
+        }
+
+        @Override
+        public String getInput() {
+            return input;
+        }
+
+        @Override
+        public void setInput(String input) {
+            this.input = input;
+        }
+
+        @Override
+        public String getStateTracer() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
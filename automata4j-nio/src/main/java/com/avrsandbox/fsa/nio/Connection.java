@@ -0,0 +1,299 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.nio;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A non-blocking socket connection bound to a state machine, the connection is the input of the machine states.
+ *
+ * <p>
+ * The read bytes are handed to the states through {@link Connection#getReadBuffer()} without copying, and the
+ * states queue their replies with {@link Connection#write(ByteBuffer)}, which never blocks; the queued buffers
+ * are written when the socket is writable. Writing and closing are thread-safe, all the other operations
+ * belong to the event loop thread of the connection.
+ * </p>
+ *
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class Connection<O> {
+
+    private final SocketChannel channel;
+    private final EventLoop loop;
+    private final ConnectionHandler<O> handler;
+    private final ByteBuffer readBuffer;
+    private final ArrayDeque<ByteBuffer> writes = new ArrayDeque<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private SelectionKey key;
+    private TransitionalManager<Connection<O>, O> manager;
+    private Object attachment;
+    private boolean closing;
+    private volatile boolean closed;
+
+    Connection(SocketChannel channel, EventLoop loop, ConnectionHandler<O> handler, int readBufferSize) {
+        this.channel = channel;
+        this.loop = loop;
+        this.handler = handler;
+        this.readBuffer = ByteBuffer.allocate(readBufferSize).flip();
+    }
+
+    /**
+     * Retrieves the unconsumed read bytes in read mode, the states consume the bytes by advancing the buffer position.
+     *
+     * @return the read buffer of this connection
+     */
+    public ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    /**
+     * Queues a buffer to be written without blocking, the buffer must not be modified until it's written.
+     *
+     * @param buffer the bytes to write (not null)
+     * @throws IllegalStateException if the connection is closed or closing
+     */
+    public void write(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Cannot accept null buffers!");
+        }
+        synchronized (writes) {
+            if (closing || closed) {
+                throw new IllegalStateException("Connection is closed!");
+            }
+            writes.add(buffer);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Queues bytes to be written without blocking.
+     *
+     * @param bytes the bytes to write (not null)
+     * @throws IllegalStateException if the connection is closed or closing
+     */
+    public void write(byte[] bytes) {
+        write(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Closes this connection after the queued writes are written.
+     */
+    public void close() {
+        synchronized (writes) {
+            if (closing || closed) {
+                return;
+            }
+            closing = true;
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Tests whether this connection is open.
+     *
+     * @return true if the connection isn't closed yet, false otherwise
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Retrieves the machine bound to this connection.
+     *
+     * @return the connection machine
+     */
+    public TransitionalManager<Connection<O>, O> getManager() {
+        return manager;
+    }
+
+    /**
+     * Retrieves the remote address of this connection.
+     *
+     * @return the remote socket address, or null if it's not available
+     */
+    public SocketAddress getRemoteAddress() {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Attaches a user object to this connection, e.g: a protocol session.
+     *
+     * @param attachment the object to attach (nullable)
+     */
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Retrieves the attached user object.
+     *
+     * @return the attached object, or null if there is none
+     */
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    /**
+     * Retrieves the event loop of this connection.
+     *
+     * @return the event loop object
+     */
+    public EventLoop getEventLoop() {
+        return loop;
+    }
+
+    /**
+     * Registers this connection on its event loop, dispatched on the loop thread.
+     */
+    void open() throws IOException {
+        key = channel.register(loop.getSelector(), SelectionKey.OP_READ, this);
+        try {
+            manager = handler.onOpen(this);
+            if (manager == null) {
+                throw new IllegalStateException("Cannot accept null machines!");
+            }
+        } catch (RuntimeException e) {
+            close(e);
+            return;
+        }
+        /* flushes the writes queued by the entry state */
+        flush();
+    }
+
+    /**
+     * Reads the available bytes and dispatches them to the machine, dispatched on the loop thread.
+     */
+    void read() {
+        try {
+            readBuffer.compact();
+            final int read;
+            try {
+                read = channel.read(readBuffer);
+            } finally {
+                readBuffer.flip();
+            }
+            if (read < 0) {
+                close(null);
+                return;
+            }
+            while (readBuffer.hasRemaining() && !closed) {
+                final int position = readBuffer.position();
+                handler.onRead(this);
+                if (readBuffer.position() == position) {
+                    break;
+                }
+            }
+            if (readBuffer.remaining() == readBuffer.capacity()) {
+                throw new IOException("Read buffer overflow, a frame exceeds " + readBuffer.capacity() + " bytes!");
+            }
+        } catch (IOException | RuntimeException e) {
+            close(e);
+        }
+    }
+
+    /**
+     * Writes the queued buffers until the socket buffer is full, dispatched on the loop thread.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        if (closed) {
+            return;
+        }
+        try {
+            final boolean drained;
+            final boolean closing;
+            synchronized (writes) {
+                ByteBuffer buffer;
+                while ((buffer = writes.peek()) != null) {
+                    channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        break;
+                    }
+                    writes.poll();
+                }
+                drained = writes.isEmpty();
+                closing = this.closing;
+            }
+            if (drained && closing) {
+                close(null);
+                return;
+            }
+            key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException | RuntimeException e) {
+            close(e);
+        }
+    }
+
+    /**
+     * Closes this connection immediately, dispatched on the loop thread.
+     *
+     * @param cause the failure that has closed the connection, or null if it's closed normally
+     */
+    void close(Throwable cause) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            /* the connection is closed regardless */
+        }
+        synchronized (writes) {
+            writes.clear();
+        }
+        handler.onClose(this, cause);
+    }
+
+    private void scheduleFlush() {
+        if (loop.inEventLoop()) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(this::flush);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.nio;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+
+/**
+ * Binds the state machines to the connections of a {@link MachineServer}, all the callbacks of a connection
+ * are dispatched on its event loop thread.
+ *
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public interface ConnectionHandler<O> {
+
+    /**
+     * Dispatched when a connection is opened, creates the connection machine and assigns its entry state.
+     *
+     * @param connection the opened connection
+     * @return a new machine taking the connection as the states input
+     */
+    TransitionalManager<Connection<O>, O> onOpen(Connection<O> connection);
+
+    /**
+     * Dispatched when new bytes are read into {@link Connection#getReadBuffer()}, the default implementation
+     * transits the connection machine into its assigned next state with the connection as the input.
+     *
+     * <p>
+     * The states consume the read bytes from the read buffer, this is dispatched again as long as the states
+     * consume bytes, and the bytes left unconsumed are kept for the next read.
+     * </p>
+     *
+     * @param connection the connection that has read new bytes
+     */
+    default void onRead(Connection<O> connection) {
+        connection.getManager().transit(connection, null);
+    }
+
+    /**
+     * Dispatched once when a connection is closed.
+     *
+     * @param connection the closed connection
+     * @param cause the failure that has closed the connection, or null if it's closed normally
+     */
+    default void onClose(Connection<O> connection, Throwable cause) {
+    }
+}
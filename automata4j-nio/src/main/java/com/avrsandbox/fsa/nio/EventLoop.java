@@ -0,0 +1,168 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.nio;
+
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * A single-threaded selector loop serving a set of connections, the connections of a loop never
+ * migrate to another loop, so their machines are confined to the loop thread.
+ *
+ * @author pavl_g
+ */
+public final class EventLoop implements Runnable {
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean terminated;
+
+    EventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Submits a task to run on this loop thread, the tasks pending when the loop stops are run after
+     * its connections and its selector are closed, so they fail instead of waiting forever.
+     *
+     * @param task the task to run (not null)
+     * @throws IllegalStateException if the loop is stopped
+     */
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Cannot accept null tasks!");
+        }
+        if (!running) {
+            throw new IllegalStateException("Event loop is stopped!");
+        }
+        tasks.add(task);
+        /* the loop may have run its pending tasks for the last time while the task was being added */
+        if (terminated && tasks.remove(task)) {
+            throw new IllegalStateException("Event loop is stopped!");
+        }
+        selector.wakeup();
+    }
+
+    /**
+     * Tests whether the caller runs on this loop thread.
+     *
+     * @return true if the current thread is the loop thread, false otherwise
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                AutomataLogger.log(Level.SEVERE, EventLoop.class.getName(), "run()", "Selector failure!", e);
+                break;
+            }
+            runTasks();
+            final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                final SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                final Object attachment = key.attachment();
+                if (attachment instanceof Connection) {
+                    final Connection<?> connection = (Connection<?>) attachment;
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.flush();
+                    }
+                } else if (attachment instanceof Runnable) {
+                    /* the acceptor of a server */
+                    ((Runnable) attachment).run();
+                }
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                ((Connection<?>) key.attachment()).close(null);
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            /* the loop is stopped regardless */
+        }
+        /* fails the pending tasks against the closed selector */
+        terminated = true;
+        runTasks();
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                AutomataLogger.log(Level.SEVERE, EventLoop.class.getName(), "runTasks()", "Task failure!", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.nio;
+
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Serves socket connections on a small pool of {@link EventLoop}s, binding a state machine per connection
+ * through a {@link ConnectionHandler}; the connections are spread over the loops in a round-robin fashion.
+ *
+ * <p>
+ * The server accepts connections after {@link MachineServer#bind(SocketAddress)}, and it can open outgoing
+ * connections served the same way using {@link MachineServer#connect(SocketAddress)}, e.g: loopback clients.
+ * </p>
+ *
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class MachineServer<O> implements AutoCloseable {
+
+    /**
+     * The default read buffer size of the connections in bytes.
+     */
+    public static final int DEFAULT_READ_BUFFER_SIZE = 8192;
+
+    private final ConnectionHandler<O> handler;
+    private final EventLoop[] loops;
+    private final int readBufferSize;
+    private final AtomicInteger next = new AtomicInteger();
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * Instantiates a server with an event loop per available processor.
+     *
+     * @param handler the handler binding the machines to the connections (not null)
+     * @throws IOException if the selectors cannot be opened
+     */
+    public MachineServer(ConnectionHandler<O> handler) throws IOException {
+        this(handler, Runtime.getRuntime().availableProcessors(), DEFAULT_READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Instantiates a server and starts its event loops.
+     *
+     * @param handler the handler binding the machines to the connections (not null)
+     * @param loops the number of the event loops (positive)
+     * @param readBufferSize the read buffer size of the connections, the largest frame a state can wait for (positive)
+     * @throws IOException if the selectors cannot be opened
+     */
+    public MachineServer(ConnectionHandler<O> handler, int loops, int readBufferSize) throws IOException {
+        if (handler == null) {
+            throw new IllegalArgumentException("Cannot accept null handlers!");
+        }
+        if (loops <= 0 || readBufferSize <= 0) {
+            throw new IllegalArgumentException("Loops count and read buffer size must be positive!");
+        }
+        this.handler = handler;
+        this.readBufferSize = readBufferSize;
+        this.loops = new EventLoop[loops];
+        for (int i = 0; i < loops; i++) {
+            this.loops[i] = new EventLoop("MachineServer-EventLoop-" + i);
+        }
+        for (EventLoop loop : this.loops) {
+            loop.start();
+        }
+    }
+
+    /**
+     * Binds the server to a local address and starts accepting connections on the first event loop.
+     *
+     * @param address the local address, e.g: {@code new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)}
+     * @return the bound local address
+     * @throws IOException if the server cannot be bound
+     */
+    public synchronized SocketAddress bind(SocketAddress address) throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Server is already bound!");
+        }
+        final ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.bind(address);
+            final EventLoop acceptor = loops[0];
+            await(acceptor, () -> channel.register(acceptor.getSelector(), SelectionKey.OP_ACCEPT,
+                    (Runnable) () -> accept(channel)));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        serverChannel = channel;
+        return channel.getLocalAddress();
+    }
+
+    /**
+     * Opens an outgoing connection served by this server, the connection machine is created by the handler.
+     *
+     * @param address the remote address
+     * @return the opened connection
+     * @throws IOException if the connection cannot be established
+     */
+    public Connection<O> connect(SocketAddress address) throws IOException {
+        final SocketChannel channel = SocketChannel.open(address);
+        return open(channel);
+    }
+
+    /**
+     * Stops the event loops, closing the server and all its connections; if it's called on an event loop
+     * thread, e.g: from a state, the calling loop is stopped after its current task without being awaited.
+     *
+     * @throws IOException if the server channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        for (EventLoop loop : loops) {
+            loop.stop();
+        }
+        for (EventLoop loop : loops) {
+            if (loop.inEventLoop()) {
+                continue;
+            }
+            try {
+                loop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        synchronized (this) {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of the event loops.
+     *
+     * @return the event loops count
+     */
+    public int getEventLoopsCount() {
+        return loops.length;
+    }
+
+    private void accept(ServerSocketChannel channel) {
+        try {
+            SocketChannel accepted;
+            while ((accepted = channel.accept()) != null) {
+                final Connection<O> connection;
+                try {
+                    connection = newConnection(accepted);
+                    connection.getEventLoop().execute(() -> openOnLoop(connection));
+                } catch (IOException | RuntimeException e) {
+                    closeQuietly(accepted);
+                    AutomataLogger.log(Level.SEVERE, MachineServer.class.getName(), "accept(ServerSocketChannel)",
+                            "Cannot serve an accepted connection!", e);
+                }
+            }
+        } catch (IOException e) {
+            AutomataLogger.log(Level.SEVERE, MachineServer.class.getName(), "accept(ServerSocketChannel)",
+                    "Cannot accept a connection!", e);
+        }
+    }
+
+    private Connection<O> open(SocketChannel channel) throws IOException {
+        try {
+            final Connection<O> connection = newConnection(channel);
+            await(connection.getEventLoop(), connection::open);
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private Connection<O> newConnection(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        final EventLoop loop = loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+        return new Connection<>(channel, loop, handler, readBufferSize);
+    }
+
+    private void openOnLoop(Connection<O> connection) {
+        try {
+            connection.open();
+        } catch (IOException | RuntimeException e) {
+            /* e.g: the loop has stopped, and its selector is closed */
+            connection.close(e);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            /* the channel is dropped regardless */
+        }
+    }
+
+    /**
+     * Runs a registration on a loop thread, as channels can't be registered while their selector is selecting;
+     * the registration runs inline if it's called on the loop thread, and fails if the loop stops.
+     */
+    private static void await(EventLoop loop, LoopTask task) throws IOException {
+        if (loop.inEventLoop()) {
+            task.run();
+            return;
+        }
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            loop.execute(() -> {
+                try {
+                    task.run();
+                    result.complete(null);
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            throw new IOException("Cannot register a channel on a stopped event loop!", e);
+        }
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while registering a channel!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface LoopTask {
+        void run() throws IOException;
+    }
+}
@@ -33,6 +33,11 @@ package com.avrsandbox.fsa.core;
 
 import java.util.logging.Level;
 import java.lang.Thread;
+import com.avrsandbox.fsa.core.jfr.FlightEvents;
+import com.avrsandbox.fsa.core.metrics.Phase;
+import com.avrsandbox.fsa.core.metrics.StateMetrics;
+import com.avrsandbox.fsa.core.metrics.TransitionMetrics;
+import com.avrsandbox.fsa.core.recorder.TransitionRing;
 import com.avrsandbox.fsa.core.state.AutoState;
 import com.avrsandbox.fsa.core.state.NextStateAssigner;
 import com.avrsandbox.fsa.core.state.NextStateNotFoundException;
@@ -60,10 +65,40 @@ public class TransitionalManager<I, O> {
      */
     protected final Transition<I, O> transition = new Transition<>();
 
+    /**
+     * The machine name, used to tell the machines apart in the flight recorder events.
+     */
+    protected final String name;
+
+    /**
+     * The opt-in transition metrics, null if the metrics are disabled.
+     */
+    protected TransitionMetrics<I, O> metrics;
+
+    /**
+     * The opt-in ring of the recent transitions, null if the transitions are not recorded.
+     */
+    protected TransitionRing transitionRing;
+
+    /**
+     * The last transited state, tracked for the edges metrics and the flight recorder events.
+     */
+    private AutoState<I, O> previousState;
+
     /**
      * Instantiates a transitional manager object.
      */
     public TransitionalManager() {
+        this(null);
+    }
+
+    /**
+     * Instantiates a named transitional manager object.
+     *
+     * @param name the machine name, or null to default to the manager class simple name
+     */
+    public TransitionalManager(String name) {
+        this.name = name != null ? name : getClass().getSimpleName();
     }
 
     /**
@@ -79,7 +114,7 @@ public class TransitionalManager<I, O> {
     public void assignNextState(AutoState<I, O> autoState) {
         transition.assignNextState(autoState);
         AutomataLogger.log(Level.INFO, TransitionalManager.class.getName(), "assignNextState(AutoState)",
-                        "Assigned a new state " + autoState);
+                        "Assigned a new state {0}", autoState);
     }
 
     /**
@@ -154,15 +189,149 @@ public class TransitionalManager<I, O> {
      */
     public void transit(I input, TransitionListener<I, O> transitionListener) throws NextStateNotFoundException {
         final AutoState<I, O> autoState = transition.getNextState();
+        if (autoState == null) {
+            final NextStateNotFoundException exception = new NextStateNotFoundException();
+            dumpTransitions(exception);
+            throw exception;
+        }
         AutomataLogger.log(Level.INFO, TransitionalManager.class.getName(),
-                    "transit(Input, TransitionalListener)", "Transiting into a new state " + autoState);
+                    "transit(Input, TransitionalListener)", "Transiting into a new state {0}", autoState);
+        final AutoState<I, O> presentState = previousState;
+        previousState = autoState;
+        if (transitionRing != null) {
+            transitionRing.record(presentState, autoState, input);
+        }
+        final Object event = FlightEvents.beginTransition();
+        try {
+            if (metrics == null) {
+                dispatch(autoState, input, transitionListener);
+            } else {
+                dispatchInstrumented(metrics.recordTransition(presentState, autoState), autoState, input, transitionListener);
+            }
+        } catch (RuntimeException e) {
+            dumpTransitions(e);
+            throw e;
+        }
+        if (event != null) {
+            FlightEvents.commitTransition(event, name, presentState, autoState);
+        }
+    }
+
+    /**
+     * Transits to the next assigned state if there is one, without throwing on a dead-end.
+     *
+     * @param input the state input
+     * @param transitionListener an event driven interface object that fires {@link TransitionListener#onTransition(AutoState)}
+     *                           after the {@link AutoState#invoke(Object)} is invoked when the transition completes
+     * @return {@link TransitStatus#TRANSITED} if the machine has transited, or {@link TransitStatus#DEAD_END}
+     *         if there is no assigned next state
+     */
+    public TransitStatus tryTransit(I input, TransitionListener<I, O> transitionListener) {
+        if (!hasNextState()) {
+            return TransitStatus.DEAD_END;
+        }
+        transit(input, transitionListener);
+        return TransitStatus.TRANSITED;
+    }
+
+    /**
+     * Transits to the next assigned state with its predefined input value if there is one,
+     * without throwing on a dead-end.
+     *
+     * @param transitionListener an event driven interface object that fires {@link TransitionListener#onTransition(AutoState)}
+     *                           after the {@link AutoState#invoke(Object)} is invoked when the transition completes
+     * @return {@link TransitStatus#TRANSITED} if the machine has transited, or {@link TransitStatus#DEAD_END}
+     *         if there is no assigned next state
+     */
+    public TransitStatus tryTransit(TransitionListener<I, O> transitionListener) {
+        if (!hasNextState()) {
+            return TransitStatus.DEAD_END;
+        }
+        /* subclasses may provide a next state without assigning it, e.g: the leaf states of a hierarchy */
+        final AutoState<I, O> nextState = transition.getNextState();
+        transit(nextState == null ? null : nextState.getInput(), transitionListener);
+        return TransitStatus.TRANSITED;
+    }
+
+    /**
+     * Tests whether this machine has a state to transit into.
+     *
+     * @return true if a next state is assigned, false otherwise
+     */
+    protected boolean hasNextState() {
+        return transition.hasNextState();
+    }
+
+    /**
+     * Dispatches the actions of a state in order, {@link AutoState#onStart()}, {@link AutoState#invoke(Object)},
+     * {@link TransitionListener#onTransition(AutoState)} and {@link AutoState#onFinish()}.
+     *
+     * <p>
+     * Subclasses may override this to provide a different dispatching strategy for the same states,
+     * e.g: {@link com.avrsandbox.fsa.core.specialized.SpecializedManager}.
+     * </p>
+     *
+     * @param autoState the state to dispatch its actions
+     * @param input the state input
+     * @param transitionListener an event driven interface object that fires {@link TransitionListener#onTransition(AutoState)}
+     *                           after the {@link AutoState#invoke(Object)} is invoked (nullable)
+     */
+    protected void dispatch(AutoState<I, O> autoState, I input, TransitionListener<I, O> transitionListener) {
+        autoState.setInput(input);
+        autoState.onStart();
+        final Object event = FlightEvents.beginStateInvoke();
+        autoState.invoke(input);
+        if (event != null) {
+            FlightEvents.commitStateInvoke(event, name, autoState);
+        }
+        if (transitionListener != null) {
+            transitionListener.onTransition(autoState);
+        }
+        autoState.onFinish();
+    }
+
+    /**
+     * Dispatches the actions of a state in order recording the latency of each phase, this bypasses
+     * {@link TransitionalManager#dispatch(AutoState, Object, TransitionListener)}.
+     */
+    private void dispatchInstrumented(StateMetrics<I, O> stateMetrics, AutoState<I, O> autoState, I input,
+                                      TransitionListener<I, O> transitionListener) {
         autoState.setInput(input);
+        long start = System.nanoTime();
         autoState.onStart();
+        long end = System.nanoTime();
+        metrics.recordLatency(stateMetrics, Phase.ON_START, end - start);
+
+        start = end;
+        final Object event = FlightEvents.beginStateInvoke();
         autoState.invoke(input);
+        if (event != null) {
+            FlightEvents.commitStateInvoke(event, name, autoState);
+        }
+        end = System.nanoTime();
+        metrics.recordLatency(stateMetrics, Phase.INVOKE, end - start);
+
         if (transitionListener != null) {
+            start = end;
             transitionListener.onTransition(autoState);
+            end = System.nanoTime();
+            metrics.recordLatency(stateMetrics, Phase.LISTENER, end - start);
         }
+
+        start = end;
         autoState.onFinish();
+        metrics.recordLatency(stateMetrics, Phase.ON_FINISH, System.nanoTime() - start);
+    }
+
+    /**
+     * Dumps the ring of the recent transitions, if enabled, as a result of an exception.
+     *
+     * @param cause the exception that has triggered the dump
+     */
+    protected void dumpTransitions(Throwable cause) {
+        if (transitionRing != null) {
+            transitionRing.dump(name, cause);
+        }
     }
 
     /**
@@ -173,7 +342,8 @@ public class TransitionalManager<I, O> {
      * @throws NextStateNotFoundException thrown if a pointer to the next state is not found
      */
     public void transit(TransitionListener<I, O> transitionListener) {
-        transit(transition.getNextState().getInput(), transitionListener);
+        final AutoState<I, O> nextState = transition.getNextState();
+        transit(nextState == null ? null : nextState.getInput(), transitionListener);
     }
 
     /**
@@ -185,5 +355,57 @@ public class TransitionalManager<I, O> {
         return transition;
     }
 
+    /**
+     * Enables recording the recent transitions of this manager into a ring, the ring is dumped
+     * on the exceptions thrown while transiting, or on demand using {@link TransitionRing#dump(String)}.
+     *
+     * @param transitionRing the transition ring, or null to stop recording the transitions
+     */
+    public void setTransitionRing(TransitionRing transitionRing) {
+        this.transitionRing = transitionRing;
+    }
+
+    /**
+     * Retrieves the ring of the recent transitions of this manager.
+     *
+     * @return the transition ring, or null if the transitions are not recorded
+     */
+    public TransitionRing getTransitionRing() {
+        return transitionRing;
+    }
+
+    /**
+     * Retrieves the machine name.
+     *
+     * @return the machine name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Enables the transition metrics of this manager, a metrics collector can be shared between several managers.
+     *
+     * <p>
+     * Note: the instrumented transitions time each state phase separately, bypassing any specialized
+     * dispatching of subclasses.
+     * </p>
+     *
+     * @param metrics the metrics collector, or null to disable the metrics
+     */
+    public void setMetrics(TransitionMetrics<I, O> metrics) {
+        this.metrics = metrics;
+        this.previousState = null;
+    }
+
+    /**
+     * Retrieves the transition metrics of this manager.
+     *
+     * @return the metrics collector, or null if the metrics are disabled
+     */
+    public TransitionMetrics<I, O> getMetrics() {
+        return metrics;
+    }
+
 
 }
\ No newline at end of file
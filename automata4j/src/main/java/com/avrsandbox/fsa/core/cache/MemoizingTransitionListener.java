@@ -0,0 +1,131 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.cache;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+
+/**
+ * A {@link TransitionListener} that memoizes the next-states assigned by a user listener in a {@link TransitionCache},
+ * and bypasses the user listener when the next-state of the present-state and its input-key is already memoized.
+ *
+ * <p>
+ * This is an opt-in for pure machines only, in which the next-state assigned by the user listener is a pure function
+ * of the present-state and its input-key (e.g: the state tracer object), the user listener isn't dispatched
+ * on cache hits, so it should have no other side effects.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class MemoizingTransitionListener<I, O> implements TransitionListener<I, O> {
+
+    /**
+     * The transitional manager object to assign the next state.
+     */
+    protected final TransitionalManager<I, O> transitionalManager;
+
+    /**
+     * The user listener that computes the next state on cache misses.
+     */
+    protected final TransitionListener<I, O> delegator;
+
+    /**
+     * Extracts the input-key of the present-state.
+     */
+    protected final InputKey<I, O> inputKey;
+
+    /**
+     * The cache of the memoized next-states.
+     */
+    protected final TransitionCache<I, O> cache;
+
+    /**
+     * Instantiates a memoizing transition listener.
+     *
+     * @param transitionalManager the transitional manager object
+     * @param delegator the user listener that assigns the next-states
+     * @param inputKey extracts the input-key of the present-state
+     * @param cache the cache of the memoized next-states
+     */
+    public MemoizingTransitionListener(TransitionalManager<I, O> transitionalManager,
+                                       TransitionListener<I, O> delegator,
+                                       InputKey<I, O> inputKey,
+                                       TransitionCache<I, O> cache) {
+        this.transitionalManager = transitionalManager;
+        this.delegator = delegator;
+        this.inputKey = inputKey;
+        this.cache = cache;
+    }
+
+    @Override
+    public void onTransition(AutoState<I, O> presentState) {
+        final int key = inputKey.keyOf(presentState);
+        final AutoState<I, O> nextState = cache.get(presentState, key);
+        if (nextState != null) {
+            transitionalManager.assignNextState(nextState);
+            return;
+        }
+        delegator.onTransition(presentState);
+        /* the user listener may keep the present-state as the next-state */
+        cache.put(presentState, key, transitionalManager.getTransition().getNextState());
+    }
+
+    /**
+     * Retrieves the cache of the memoized next-states.
+     *
+     * @return the transition cache object
+     */
+    public TransitionCache<I, O> getCache() {
+        return cache;
+    }
+
+    /**
+     * Extracts an integer input-key out of a present-state after its invocation, e.g: {@code state -> state.getStateTracer()}.
+     *
+     * @param <I> the state input type
+     * @param <O> the tracer object type
+     */
+    @FunctionalInterface
+    public interface InputKey<I, O> {
+
+        /**
+         * Extracts the input-key of a present-state.
+         *
+         * @param presentState the present-state after its invocation
+         * @return the input-key that, with the present-state, determines the next-state
+         */
+        int keyOf(AutoState<I, O> presentState);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.cache;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Arrays;
+
+/**
+ * A bounded cache that memoizes the next-state of a (present-state, input-key) pair.
+ *
+ * <p>
+ * Entries are kept in fixed-size parallel arrays indexed by an open-addressing table of primitive
+ * long keys, the key combines the identity hash of the present-state and the integer input-key,
+ * and a hit compares the present-state by reference; a full cache evicts its entries using the
+ * CLOCK (second-chance) policy, so neither a lookup nor an insertion allocates.
+ * </p>
+ *
+ * <p>
+ * This cache is not thread-safe, it's intended to be owned by a single machine.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+@SuppressWarnings("unchecked")
+public class TransitionCache<I, O> {
+
+    private final long[] keys;
+    private final Object[] presentStates;
+    private final Object[] nextStates;
+    private final boolean[] referenced;
+    /* maps the probing positions into the entries slots (slot + 1), 0 denotes an empty position */
+    private final int[] index;
+    private final int mask;
+    private int size;
+    private int hand;
+    private long hits;
+    private long misses;
+
+    /**
+     * Instantiates a transition cache with a maximum number of entries.
+     *
+     * @param capacity the maximum number of memoized transitions (positive)
+     */
+    public TransitionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive!");
+        }
+        keys = new long[capacity];
+        presentStates = new Object[capacity];
+        nextStates = new Object[capacity];
+        referenced = new boolean[capacity];
+        index = new int[Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1];
+        mask = index.length - 1;
+    }
+
+    /**
+     * Looks up the memoized next-state of a present-state and an input-key, and records a hit or a miss.
+     *
+     * @param presentState the present-state
+     * @param inputKey the input-key of the present-state
+     * @return the memoized next-state, or null if not found
+     */
+    public AutoState<I, O> get(AutoState<I, O> presentState, int inputKey) {
+        final int slot = find(presentState, keyOf(presentState, inputKey));
+        if (slot < 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        referenced[slot] = true;
+        return (AutoState<I, O>) nextStates[slot];
+    }
+
+    /**
+     * Memoizes the next-state of a present-state and an input-key, evicting an entry if the cache is full.
+     *
+     * @param presentState the present-state
+     * @param inputKey the input-key of the present-state
+     * @param nextState the next-state to memoize (not null)
+     */
+    public void put(AutoState<I, O> presentState, int inputKey, AutoState<I, O> nextState) {
+        if (presentState == null || nextState == null) {
+            return;
+        }
+        final long key = keyOf(presentState, inputKey);
+        int slot = find(presentState, key);
+        if (slot < 0) {
+            slot = size < keys.length ? size++ : evict();
+            keys[slot] = key;
+            presentStates[slot] = presentState;
+            int position = home(key);
+            while (index[position] != 0) {
+                position = (position + 1) & mask;
+            }
+            index[position] = slot + 1;
+        }
+        nextStates[slot] = nextState;
+        referenced[slot] = false;
+    }
+
+    /**
+     * Removes all the memoized transitions, the statistics are retained.
+     */
+    public void clear() {
+        Arrays.fill(index, 0);
+        Arrays.fill(presentStates, null);
+        Arrays.fill(nextStates, null);
+        Arrays.fill(referenced, false);
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Retrieves the number of the memoized transitions.
+     *
+     * @return the number of the cache entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of the lookups that found a memoized next-state.
+     *
+     * @return the number of the cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Retrieves the number of the lookups that didn't find a memoized next-state.
+     *
+     * @return the number of the cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Resets the hits and the misses counters.
+     */
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+    }
+
+    private int find(AutoState<I, O> presentState, long key) {
+        int position = home(key);
+        int slot;
+        while ((slot = index[position] - 1) >= 0) {
+            if (keys[slot] == key && presentStates[slot] == presentState) {
+                return slot;
+            }
+            position = (position + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Selects a victim slot using the CLOCK policy and removes it from the index.
+     *
+     * @return the evicted slot
+     */
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % keys.length;
+        }
+        final int victim = hand;
+        hand = (hand + 1) % keys.length;
+
+        int position = home(keys[victim]);
+        while (index[position] != victim + 1) {
+            position = (position + 1) & mask;
+        }
+        /* backward-shift deletion keeps the linear probing chains intact */
+        int next = position;
+        for (;;) {
+            next = (next + 1) & mask;
+            final int slot = index[next] - 1;
+            if (slot < 0) {
+                break;
+            }
+            final int home = home(keys[slot]);
+            final boolean movable = position <= next ? (home <= position || home > next)
+                                                     : (home <= position && home > next);
+            if (movable) {
+                index[position] = index[next];
+                position = next;
+            }
+        }
+        index[position] = 0;
+        return victim;
+    }
+
+    private int home(long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private static long keyOf(AutoState<?, ?> presentState, int inputKey) {
+        return ((long) System.identityHashCode(presentState) << 32) | (inputKey & 0xFFFFFFFFL);
+    }
+}
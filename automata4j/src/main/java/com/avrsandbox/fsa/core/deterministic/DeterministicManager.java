@@ -34,8 +34,6 @@ package com.avrsandbox.fsa.core.deterministic;
 import com.avrsandbox.fsa.core.TransitionalManager;
 import com.avrsandbox.fsa.core.state.TransitionListener;
 import com.avrsandbox.fsa.core.transition.TransitionPath;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * A deterministic version of the {@link TransitionalManager} to enable implementing the
@@ -55,22 +53,39 @@ public class DeterministicManager<I, O> extends TransitionalManager<I, O> {
     /**
      * Keeps track of the previous assigned paths to ensure new transition
      * paths are unique.
+     *
+     * <p>
+     * Note: this used to be a {@code Map<String, TransitionPath>} retaining the paths, the registry keeps
+     * compact keys only, so subclasses that accessed the map directly should use
+     * {@link DeterministicManager#hasTransitionPath(TransitionPath)} and {@link DeterministicManager#getPaths()}.
+     * </p>
      */
-    protected Map<String, TransitionPath<I, O>> paths = new HashMap<>();
+    protected final TransitionPathRegistry paths;
 
     /**
      * Instantiates a deterministic finite-state-automaton manager that
      * defines a single a-successor path (unique transition paths).
      */
     public DeterministicManager() {
+        this(new TransitionPathRegistry());
+    }
+
+    /**
+     * Instantiates a deterministic finite-state-automaton manager that
+     * defines a single a-successor path (unique transition paths) with a user registry,
+     * e.g: a bounded registry for long-running machines.
+     *
+     * @param paths the registry of the used transition paths
+     */
+    public DeterministicManager(TransitionPathRegistry paths) {
+        this.paths = paths;
     }
 
     @Override
     public void transit(TransitionPath<I, O> transitionPath, TransitionListener<I, O> transitionListener) {
-        if (hasTransitionPath(transitionPath)) {
+        if (!paths.register(transitionPath)) {
             throw new TransitionPathNotUniqueException(transitionPath.getName());
         }
-        paths.put(transitionPath.getName(), transitionPath);
         super.transit(transitionPath, transitionListener);
     }
 
@@ -86,14 +101,15 @@ public class DeterministicManager<I, O> extends TransitionalManager<I, O> {
      * @return true if this path is not unique, false otherwise
      */
     protected boolean hasTransitionPath(TransitionPath<I, O> transitionPath) {
-        if (transitionPath == null) {
-            throw new IllegalArgumentException("Cannot accept null transition paths!");
-        }
-        TransitionPath<I, O> transitionPath1 = paths.get(transitionPath.getName());
-        return transitionPath1 != null &&
-                (transitionPath1.hashCode() == transitionPath.hashCode() ||
-                        (transitionPath1.getPresentState().hashCode() == transitionPath.getPresentState().hashCode() &&
-                                transitionPath1.getNextState().hashCode() == transitionPath.getNextState().hashCode() &&
-                                transitionPath1.getNextState().getInput().hashCode() == transitionPath.getNextState().getInput().hashCode()));
+        return paths.contains(transitionPath);
+    }
+
+    /**
+     * Retrieves the registry of the used transition paths.
+     *
+     * @return the transition path registry object
+     */
+    public TransitionPathRegistry getPaths() {
+        return paths;
     }
 }
@@ -0,0 +1,254 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.deterministic;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.transition.TransitionPath;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe registry of the {@link TransitionPath}s used by a {@link DeterministicManager}.
+ *
+ * <p>
+ * The registry doesn't retain the transition paths nor their states, each path is registered by its name
+ * as a compact key of the hash codes of the path, its present-state, its next-state and the next-state input.
+ * </p>
+ *
+ * <p>
+ * An unbounded registry keeps the paths until they are unregistered, its lookups are lock-free and a
+ * registration is a single atomic operation. A bounded registry keeps the paths in their registration order,
+ * and evicts the eldest registered paths (FIFO) when its capacity is exceeded, allowing evicted paths to be
+ * reused again; overriding a path registers it anew, and its operations are serialized on the registry.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class TransitionPathRegistry {
+
+    /**
+     * Denotes an unbounded registry capacity.
+     */
+    public static final int UNBOUNDED = -1;
+
+    /**
+     * The registered path keys by the path names, a {@link ConcurrentHashMap} if the registry is unbounded,
+     * otherwise a {@link LinkedHashMap} in the registration order guarded by this registry.
+     */
+    protected final Map<String, PathKey> paths;
+
+    /**
+     * The maximum number of the registered paths.
+     */
+    protected final int capacity;
+
+    /**
+     * Instantiates an unbounded transition path registry.
+     */
+    public TransitionPathRegistry() {
+        this(UNBOUNDED);
+    }
+
+    /**
+     * Instantiates a transition path registry with a maximum capacity.
+     *
+     * @param capacity the maximum number of the registered paths, or {@link TransitionPathRegistry#UNBOUNDED}
+     */
+    public TransitionPathRegistry(int capacity) {
+        if (capacity <= 0 && capacity != UNBOUNDED) {
+            throw new IllegalArgumentException("Registry capacity must be positive!");
+        }
+        this.capacity = capacity;
+        this.paths = capacity == UNBOUNDED ? new ConcurrentHashMap<>() : new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PathKey> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Registers a transition path if it's unique.
+     *
+     * @param transitionPath the transition path to register (not null)
+     * @return true if the path is registered, false if the same path has been registered before
+     */
+    public boolean register(TransitionPath<?, ?> transitionPath) {
+        final PathKey key = PathKey.of(transitionPath);
+        if (!isBounded()) {
+            final ConcurrentHashMap<String, PathKey> paths = (ConcurrentHashMap<String, PathKey>) this.paths;
+            for (;;) {
+                final PathKey registered = paths.putIfAbsent(key.name, key);
+                if (registered == null) {
+                    return true;
+                }
+                if (registered.matches(key)) {
+                    return false;
+                }
+                /* a different path with the same name overrides the registered one */
+                if (paths.replace(key.name, registered, key)) {
+                    return true;
+                }
+            }
+        }
+        synchronized (this) {
+            final PathKey registered = paths.remove(key.name);
+            if (registered != null && registered.matches(key)) {
+                /* restores the registered path at its registration order */
+                paths.put(key.name, registered);
+                return false;
+            }
+            /* a new or an overriding path is appended as the youngest registration */
+            paths.put(key.name, key);
+            return true;
+        }
+    }
+
+    /**
+     * Tests whether the same transition path has been registered before.
+     *
+     * @param transitionPath the transition path to test (not null)
+     * @return true if this path is not unique, false otherwise
+     */
+    public boolean contains(TransitionPath<?, ?> transitionPath) {
+        final PathKey key = PathKey.of(transitionPath);
+        final PathKey registered;
+        if (isBounded()) {
+            synchronized (this) {
+                registered = paths.get(key.name);
+            }
+        } else {
+            registered = paths.get(key.name);
+        }
+        return registered != null && registered.matches(key);
+    }
+
+    /**
+     * Unregisters a transition path by its name.
+     *
+     * @param name the transition path name
+     * @return true if a path has been unregistered, false otherwise
+     */
+    public boolean unregister(String name) {
+        if (isBounded()) {
+            synchronized (this) {
+                return paths.remove(name) != null;
+            }
+        }
+        return paths.remove(name) != null;
+    }
+
+    /**
+     * Unregisters all the transition paths.
+     */
+    public void clear() {
+        if (isBounded()) {
+            synchronized (this) {
+                paths.clear();
+            }
+            return;
+        }
+        paths.clear();
+    }
+
+    /**
+     * Retrieves the number of the registered paths.
+     *
+     * @return the number of the registered paths
+     */
+    public int size() {
+        if (isBounded()) {
+            synchronized (this) {
+                return paths.size();
+            }
+        }
+        return paths.size();
+    }
+
+    /**
+     * Retrieves the maximum number of the registered paths.
+     *
+     * @return the registry capacity, or {@link TransitionPathRegistry#UNBOUNDED}
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Tests whether this registry evicts its eldest paths past its capacity.
+     *
+     * @return true if the registry is bounded, false otherwise
+     */
+    public boolean isBounded() {
+        return capacity != UNBOUNDED;
+    }
+
+    /**
+     * A compact registry key of a transition path.
+     */
+    protected static final class PathKey {
+
+        private final String name;
+        private final int pathHash;
+        private final int presentStateHash;
+        private final int nextStateHash;
+        private final int inputHash;
+
+        private PathKey(String name, int pathHash, int presentStateHash, int nextStateHash, int inputHash) {
+            this.name = name;
+            this.pathHash = pathHash;
+            this.presentStateHash = presentStateHash;
+            this.nextStateHash = nextStateHash;
+            this.inputHash = inputHash;
+        }
+
+        private static PathKey of(TransitionPath<?, ?> transitionPath) {
+            if (transitionPath == null) {
+                throw new IllegalArgumentException("Cannot accept null transition paths!");
+            }
+            final AutoState<?, ?> nextState = transitionPath.peekNextState();
+            return new PathKey(transitionPath.getName(), transitionPath.hashCode(),
+                    Objects.hashCode(transitionPath.peekPresentState()),
+                    Objects.hashCode(nextState),
+                    nextState == null ? 0 : Objects.hashCode(nextState.getInput()));
+        }
+
+        private boolean matches(PathKey key) {
+            return pathHash == key.pathHash ||
+                    (presentStateHash == key.presentStateHash &&
+                            nextStateHash == key.nextStateHash &&
+                            inputHash == key.inputHash);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.hierarchy;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a composite state that contains its own sub-machine of sub-states, the sub-states
+ * may be composite states themselves.
+ *
+ * <p>
+ * In a {@link HierarchicalManager}, {@link AutoState#onStart()} and {@link AutoState#onFinish()} of a composite state
+ * are dispatched when the machine enters and exits the composite state respectively, and entering a composite
+ * state enters its initial sub-state.
+ * </p>
+ *
+ * <p>
+ * The default actions are empty, applications may extend this class to define their own actions.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class CompositeState<I, O> implements AutoState<I, O> {
+
+    /**
+     * The sub-states of this composite state in the order of addition.
+     */
+    protected final List<AutoState<I, O>> subStates = new ArrayList<>();
+
+    /**
+     * The sub-state entered when entering this composite state.
+     */
+    protected AutoState<I, O> initialState;
+
+    /**
+     * The state input.
+     */
+    protected I input;
+
+    /**
+     * The state tracer object.
+     */
+    protected O tracer;
+
+    /**
+     * Instantiates an empty composite state.
+     */
+    public CompositeState() {
+    }
+
+    /**
+     * Adds a sub-state to this composite state, the first added sub-state is the initial sub-state by default.
+     *
+     * @param subState the sub-state to add (not null)
+     * @return this composite state for chaining
+     */
+    public CompositeState<I, O> add(AutoState<I, O> subState) {
+        if (subState == null || subState == this) {
+            throw new IllegalArgumentException("Cannot accept null or self sub-states!");
+        }
+        subStates.add(subState);
+        if (initialState == null) {
+            initialState = subState;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the sub-state entered when entering this composite state.
+     *
+     * @param initialState a sub-state of this composite state
+     * @return this composite state for chaining
+     */
+    public CompositeState<I, O> setInitialState(AutoState<I, O> initialState) {
+        if (!subStates.contains(initialState)) {
+            throw new IllegalArgumentException("The initial state must be a sub-state of this composite state!");
+        }
+        this.initialState = initialState;
+        return this;
+    }
+
+    /**
+     * Retrieves the sub-state entered when entering this composite state.
+     *
+     * @return the initial sub-state, or null if this composite state is empty
+     */
+    public AutoState<I, O> getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Retrieves the sub-states of this composite state.
+     *
+     * @return an unmodifiable list of the sub-states
+     */
+    public List<AutoState<I, O>> getSubStates() {
+        return Collections.unmodifiableList(subStates);
+    }
+
+    @Override
+    public void onStart() {
+    }
+
+    @Override
+    public void invoke(I input) {
+    }
+
+    @Override
+    public void onFinish() {
+    }
+
+    @Override
+    public I getInput() {
+        return input;
+    }
+
+    @Override
+    public void setInput(I input) {
+        this.input = input;
+    }
+
+    @Override
+    public O getStateTracer() {
+        return tracer;
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.hierarchy;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.jfr.FlightEvents;
+import com.avrsandbox.fsa.core.metrics.Phase;
+import com.avrsandbox.fsa.core.metrics.StateMetrics;
+import com.avrsandbox.fsa.core.rule.RuleTable;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.NextStateNotFoundException;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * A {@link TransitionalManager} for hierarchical state machines, the states are nested in {@link CompositeState}s
+ * under a root composite state, and the transitions are declared by a {@link RuleTable}.
+ *
+ * <p>
+ * The machine is always in a leaf state (a non-composite state) and all its ancestors; on each transit the leaf
+ * state is invoked with the input, then the input is matched against the rules of the leaf state, and if unhandled,
+ * it bubbles to the rules of the ancestors through a precomputed ancestors array.
+ * A matched rule exits the states up to the lowest common ancestor of the rule present-state and next-state
+ * ({@link AutoState#onFinish()}), and enters the states down to the next-state and its initial sub-states
+ * ({@link AutoState#onStart()}), those exit/entry sequences are precomputed for each rule when the manager is built.
+ * </p>
+ *
+ * <p>
+ * Unlike the flat {@link TransitionalManager}, the leaf state actions are bracketed by its entry and exit, not by each transit.
+ * </p>
+ *
+ * <p>
+ * Likewise, a flight recorder state invoke event is emitted for each leaf state invoke, while a transition event
+ * is emitted for each followed route, spanning its exits and entries from the leaf state into the new leaf state.
+ * The metrics, if enabled, record an entry and an edge for each new leaf state, the invoke and the listener latencies
+ * of the leaf states, and the entry and the exit latencies of every entered and exited state; and the transition
+ * ring, if enabled, records each followed route from the leaf state into the new leaf state.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class HierarchicalManager<I, O> extends TransitionalManager<I, O> {
+
+    /**
+     * The root composite state, it's never exited.
+     */
+    protected final CompositeState<I, O> root;
+
+    /**
+     * The transition rules of the states.
+     */
+    protected final RuleTable<I, O> ruleTable;
+
+    private final AutoState<I, O>[] states;
+    private final Map<AutoState<I, O>, Integer> ids = new IdentityHashMap<>();
+    private final int[] parents;
+    private final int[] depths;
+    /* the ancestors of each state, starting by the state itself up to the root */
+    private final int[][] ancestors;
+    /* the precomputed routes of the rules by their present-states and next-states */
+    private final Map<AutoState<I, O>, Route>[] routes;
+    private final Route initialRoute;
+    private int leaf = -1;
+
+    /**
+     * Instantiates a hierarchical manager and precomputes the routes of the rules.
+     *
+     * @param root the root composite state of the machine (not null, not empty)
+     * @param ruleTable the transition rules of the states
+     */
+    public HierarchicalManager(CompositeState<I, O> root, RuleTable<I, O> ruleTable) {
+        if (root == null || root.getInitialState() == null) {
+            throw new IllegalArgumentException("The root state must be a non-empty composite state!");
+        }
+        this.root = root;
+        this.ruleTable = ruleTable;
+
+        final List<AutoState<I, O>> definition = new ArrayList<>();
+        final List<Integer> parentIds = new ArrayList<>();
+        collect(root, -1, definition, parentIds);
+
+        states = definition.toArray(new AutoState[0]);
+        parents = new int[states.length];
+        depths = new int[states.length];
+        ancestors = new int[states.length][];
+        routes = new Map[states.length];
+        for (int id = 0; id < states.length; id++) {
+            parents[id] = parentIds.get(id);
+            depths[id] = parents[id] < 0 ? 0 : depths[parents[id]] + 1;
+            ancestors[id] = new int[depths[id] + 1];
+            for (int ancestor = id, i = 0; ancestor >= 0; ancestor = parents[ancestor], i++) {
+                ancestors[id][i] = ancestor;
+            }
+        }
+        for (int id = 0; id < states.length; id++) {
+            for (AutoState<I, O> nextState : ruleTable.getNextStates(states[id])) {
+                if (routes[id] == null) {
+                    routes[id] = new IdentityHashMap<>();
+                }
+                routes[id].put(nextState, route(id, idOf(nextState)));
+            }
+        }
+        initialRoute = route(0, 0);
+    }
+
+    /**
+     * Enters the initial configuration of the machine, starting by the root state down to its initial leaf state.
+     *
+     * <p>
+     * This is dispatched automatically on the first transit, if not dispatched before.
+     * </p>
+     */
+    public void start() {
+        if (leaf >= 0) {
+            throw new IllegalStateException("The hierarchical machine has already started!");
+        }
+        onStart(0);
+        enter(initialRoute, null);
+    }
+
+    /**
+     * Transits to an arbitrary state of the hierarchy, exiting the states up to the lowest common ancestor
+     * and entering the states down to the new leaf state, without matching the rules.
+     *
+     * @param autoState a state of the hierarchy
+     */
+    @Override
+    public void assignNextState(AutoState<I, O> autoState) {
+        if (autoState == null) {
+            throw new NextStateNotFoundException();
+        }
+        final int target = idOf(autoState);
+        try {
+            if (leaf < 0) {
+                start();
+            }
+            follow(route(leaf, target), null);
+        } catch (RuntimeException e) {
+            dumpTransitions(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Invokes the leaf state with an input, then matches the input against the rules of the leaf state
+     * and its ancestors, and follows the first matching rule.
+     *
+     * @param input the state input
+     * @param transitionListener an event driven interface object that fires {@link TransitionListener#onTransition(AutoState)}
+     *                           after the {@link AutoState#invoke(Object)} is invoked on the leaf state (nullable)
+     */
+    @Override
+    public void transit(I input, TransitionListener<I, O> transitionListener) {
+        try {
+            dispatchLeaf(input, transitionListener);
+        } catch (RuntimeException e) {
+            dumpTransitions(e);
+            throw e;
+        }
+    }
+
+    private void dispatchLeaf(I input, TransitionListener<I, O> transitionListener) {
+        if (leaf < 0) {
+            start();
+        }
+        final AutoState<I, O> leafState = states[leaf];
+        AutomataLogger.log(Level.INFO, HierarchicalManager.class.getName(),
+                "transit(Input, TransitionalListener)", "Dispatching into the leaf state {0}", leafState);
+        leafState.setInput(input);
+        final StateMetrics<I, O> stateMetrics = metrics == null ? null : metrics.getMetrics(leafState);
+        long start = stateMetrics == null ? 0 : System.nanoTime();
+        final Object event = FlightEvents.beginStateInvoke();
+        leafState.invoke(input);
+        if (event != null) {
+            FlightEvents.commitStateInvoke(event, name, leafState);
+        }
+        if (stateMetrics != null) {
+            final long end = System.nanoTime();
+            metrics.recordLatency(stateMetrics, Phase.INVOKE, end - start);
+            start = end;
+        }
+        if (transitionListener != null) {
+            transitionListener.onTransition(leafState);
+            if (stateMetrics != null) {
+                metrics.recordLatency(stateMetrics, Phase.LISTENER, System.nanoTime() - start);
+            }
+        }
+        /* bubbles the input from the leaf state up to the root */
+        for (int id : ancestors[leaf]) {
+            final AutoState<I, O> nextState = ruleTable.next(states[id], input);
+            if (nextState != null) {
+                follow(routes[id].get(nextState), input);
+                return;
+            }
+        }
+    }
+
+    /**
+     * A hierarchical machine always has a leaf state to dispatch the inputs into.
+     *
+     * @return true always
+     */
+    @Override
+    protected boolean hasNextState() {
+        return true;
+    }
+
+    /**
+     * Retrieves the active leaf state.
+     *
+     * @return the leaf state, or null if the machine hasn't started
+     */
+    public AutoState<I, O> getLeafState() {
+        return leaf < 0 ? null : states[leaf];
+    }
+
+    /**
+     * Tests whether a state is active, i.e: it's the leaf state or one of its ancestors.
+     *
+     * @param autoState the state to test
+     * @return true if the state is active, false otherwise
+     */
+    public boolean isActive(AutoState<I, O> autoState) {
+        final Integer id = ids.get(autoState);
+        if (leaf < 0 || id == null) {
+            return false;
+        }
+        final int[] activeStates = ancestors[leaf];
+        final int depth = depths[id];
+        return depth < activeStates.length && activeStates[activeStates.length - 1 - depth] == id;
+    }
+
+    private void follow(Route route, I input) {
+        final Object event = FlightEvents.beginTransition();
+        final AutoState<I, O> leafState = states[leaf];
+        final int[] activeStates = ancestors[leaf];
+        for (int i = 0; i < activeStates.length && depths[activeStates[i]] > route.exitDepth; i++) {
+            onFinish(activeStates[i]);
+        }
+        enter(route, leafState);
+        if (transitionRing != null) {
+            transitionRing.record(leafState, states[leaf], input);
+        }
+        if (event != null) {
+            FlightEvents.commitTransition(event, name, leafState, states[leaf]);
+        }
+    }
+
+    private void enter(Route route, AutoState<I, O> presentState) {
+        for (int id : route.entries) {
+            onStart(id);
+        }
+        leaf = route.leaf;
+        transition.assignNextState(states[leaf]);
+        if (metrics != null) {
+            metrics.recordTransition(presentState, states[leaf]);
+        }
+    }
+
+    private void onStart(int id) {
+        if (metrics == null) {
+            states[id].onStart();
+            return;
+        }
+        final long start = System.nanoTime();
+        states[id].onStart();
+        metrics.recordLatency(metrics.getMetrics(states[id]), Phase.ON_START, System.nanoTime() - start);
+    }
+
+    private void onFinish(int id) {
+        if (metrics == null) {
+            states[id].onFinish();
+            return;
+        }
+        final long start = System.nanoTime();
+        states[id].onFinish();
+        metrics.recordLatency(metrics.getMetrics(states[id]), Phase.ON_FINISH, System.nanoTime() - start);
+    }
+
+    /**
+     * Computes the route of a transition from a source state to a target state, transitions are external,
+     * i.e: a transition into the source state itself or into one of its ancestors/descendants exits and re-enters it.
+     */
+    private Route route(int source, int target) {
+        int lca = lowestCommonAncestor(source, target);
+        if (lca == source || lca == target) {
+            lca = parents[lca];
+        }
+        /* the root is never exited */
+        if (lca < 0) {
+            lca = 0;
+        }
+        final List<Integer> entries = new ArrayList<>();
+        for (int id = target; id != lca; id = parents[id]) {
+            entries.add(0, id);
+        }
+        int leafId = target;
+        while (states[leafId] instanceof CompositeState) {
+            leafId = idOf(((CompositeState<I, O>) states[leafId]).getInitialState());
+            entries.add(leafId);
+        }
+        return new Route(depths[lca], entries.stream().mapToInt(Integer::intValue).toArray(), leafId);
+    }
+
+    private int lowestCommonAncestor(int first, int second) {
+        while (depths[first] > depths[second]) {
+            first = parents[first];
+        }
+        while (depths[second] > depths[first]) {
+            second = parents[second];
+        }
+        while (first != second) {
+            first = parents[first];
+            second = parents[second];
+        }
+        return first;
+    }
+
+    private int idOf(AutoState<I, O> autoState) {
+        final Integer id = ids.get(autoState);
+        if (id == null) {
+            throw new IllegalArgumentException("State " + autoState + " is not part of this hierarchy!");
+        }
+        return id;
+    }
+
+    private void collect(AutoState<I, O> autoState, int parent, List<AutoState<I, O>> definition, List<Integer> parentIds) {
+        if (ids.putIfAbsent(autoState, definition.size()) != null) {
+            throw new IllegalArgumentException("State " + autoState + " is nested more than once!");
+        }
+        definition.add(autoState);
+        parentIds.add(parent);
+        if (autoState instanceof CompositeState) {
+            final CompositeState<I, O> compositeState = (CompositeState<I, O>) autoState;
+            if (compositeState.getInitialState() == null) {
+                throw new IllegalArgumentException("Composite state " + autoState + " has no sub-states!");
+            }
+            final int id = definition.size() - 1;
+            for (AutoState<I, O> subState : compositeState.getSubStates()) {
+                collect(subState, id, definition, parentIds);
+            }
+        }
+    }
+
+    /**
+     * A precomputed transition route, the exit depth and the entry sequence.
+     */
+    private static final class Route {
+        /* states deeper than this depth are exited */
+        private final int exitDepth;
+        private final int[] entries;
+        private final int leaf;
+
+        private Route(int exitDepth, int[] entries, int leaf) {
+            this.exitDepth = exitDepth;
+            this.entries = entries;
+            this.leaf = leaf;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.hierarchy;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Represents a composite state of orthogonal regions, each region is an independent {@link TransitionalManager}
+ * with its own transition listener, and all the regions process the same input of this state.
+ *
+ * <p>
+ * On {@link OrthogonalState#invoke(Object)}, the regions transit in parallel on a {@link ForkJoinPool} (the invoking
+ * thread transits the first region), or sequentially on the invoking thread if the input doesn't pass the parallelism
+ * predicate (e.g: small inputs), the invocation joins all the regions before it returns, so the regions are complete
+ * before the {@link AutoState#onFinish()} of this state.
+ * The region tasks are reusable and the join barrier is a preallocated counter, so invoking this state doesn't
+ * allocate per input.
+ * </p>
+ *
+ * <p>
+ * The regions must be added and assigned their initial states before this state is invoked, and this state must
+ * be invoked by a single machine at a time.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class OrthogonalState<I, O> implements AutoState<I, O> {
+
+    /**
+     * The pool on which the regions transit in parallel.
+     */
+    protected final ForkJoinPool pool;
+
+    private final List<RegionTask> regions = new ArrayList<>();
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private RegionTask[] tasks = new OrthogonalState.RegionTask[0];
+    private Predicate<? super I> parallelism = input -> true;
+
+    /* the join barrier */
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread waiter;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * The state input.
+     */
+    protected I input;
+
+    /**
+     * The state tracer object.
+     */
+    protected O tracer;
+
+    /**
+     * Instantiates an orthogonal state that transits its regions on the common pool.
+     */
+    public OrthogonalState() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates an orthogonal state that transits its regions on a user pool.
+     *
+     * @param pool the pool on which the regions transit in parallel
+     */
+    public OrthogonalState(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Adds an orthogonal region to this state.
+     *
+     * @param region the transitional manager of the region, with an assigned initial state
+     * @param transitionListener the transition listener of the region (nullable)
+     * @return this orthogonal state for chaining
+     */
+    public OrthogonalState<I, O> addRegion(TransitionalManager<I, O> region, TransitionListener<I, O> transitionListener) {
+        if (region == null) {
+            throw new IllegalArgumentException("Cannot accept null regions!");
+        }
+        regions.add(new RegionTask(region, transitionListener));
+        tasks = regions.toArray(tasks);
+        return this;
+    }
+
+    /**
+     * Sets the predicate that decides whether an input is processed by the regions in parallel or sequentially.
+     *
+     * @param parallelism the parallelism predicate, e.g: {@code input -> input.size() > 1024}
+     */
+    public void setParallelism(Predicate<? super I> parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Retrieves the number of the orthogonal regions.
+     *
+     * @return the number of the regions
+     */
+    public int getRegionsCount() {
+        return tasks.length;
+    }
+
+    /**
+     * Retrieves the transitional manager of a region.
+     *
+     * @param index the index of the region in the order of addition
+     * @return the transitional manager of the region
+     */
+    public TransitionalManager<I, O> getRegion(int index) {
+        return tasks[index].region;
+    }
+
+    @Override
+    public void onStart() {
+    }
+
+    /**
+     * Transits all the regions with the input, and joins them.
+     *
+     * @param input the input to the state
+     */
+    @Override
+    public void invoke(I input) {
+        final RegionTask[] tasks = this.tasks;
+        if (tasks.length == 0) {
+            return;
+        }
+        if (tasks.length == 1 || !parallelism.test(input)) {
+            for (RegionTask task : tasks) {
+                task.region.transit(input, task.transitionListener);
+            }
+            return;
+        }
+        failure.set(null);
+        pending.set(tasks.length - 1);
+        waiter = Thread.currentThread();
+        final boolean inPool = ForkJoinTask.getPool() == pool;
+        for (int i = 1; i < tasks.length; i++) {
+            tasks[i].input = input;
+            if (inPool) {
+                tasks[i].fork();
+            } else {
+                pool.execute(tasks[i]);
+            }
+        }
+        try {
+            tasks[0].region.transit(input, tasks[0].transitionListener);
+        } catch (Throwable throwable) {
+            fail(throwable);
+        }
+        if (inPool) {
+            /* runs the regions that aren't stolen by other workers instead of blocking this worker */
+            for (int i = tasks.length - 1; i > 0; i--) {
+                if (tasks[i].tryUnfork()) {
+                    tasks[i].run();
+                }
+            }
+        }
+        while (pending.get() != 0) {
+            LockSupport.park(this);
+        }
+        waiter = null;
+        rethrow(failure.getAndSet(null));
+    }
+
+    @Override
+    public void onFinish() {
+    }
+
+    @Override
+    public I getInput() {
+        return input;
+    }
+
+    @Override
+    public void setInput(I input) {
+        this.input = input;
+    }
+
+    @Override
+    public O getStateTracer() {
+        return tracer;
+    }
+
+    /**
+     * Keeps the first failure of the regions, the failures of the other regions are suppressed into it.
+     */
+    private void fail(Throwable throwable) {
+        if (failure.compareAndSet(null, throwable)) {
+            return;
+        }
+        final Throwable first = failure.get();
+        if (first != throwable) {
+            first.addSuppressed(throwable);
+        }
+    }
+
+    private static void rethrow(Throwable throwable) {
+        if (throwable == null) {
+            return;
+        }
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        throw new IllegalStateException(throwable);
+    }
+
+    /**
+     * A reusable task that transits a region with the current input.
+     */
+    private final class RegionTask extends ForkJoinTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TransitionalManager<I, O> region;
+        private final TransitionListener<I, O> transitionListener;
+        private I input;
+
+        private RegionTask(TransitionalManager<I, O> region, TransitionListener<I, O> transitionListener) {
+            this.region = region;
+            this.transitionListener = transitionListener;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+        }
+
+        /**
+         * Transits the region, the task never completes, so it can be executed again without reinitialization.
+         *
+         * @return false to keep the task reusable
+         */
+        @Override
+        protected boolean exec() {
+            run();
+            return false;
+        }
+
+        private void run() {
+            try {
+                region.transit(input, transitionListener);
+            } catch (Throwable throwable) {
+                fail(throwable);
+            } finally {
+                input = null;
+                if (pending.decrementAndGet() == 0) {
+                    LockSupport.unpark(waiter);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.jfr;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+
+/**
+ * Emits the automata4j flight recorder events, this is the only entry to the events classes.
+ *
+ * <p>
+ * The begin methods return null if the event is disabled, so an event costs a single check while no recording
+ * is running; on runtimes without the {@code jdk.jfr} module (e.g: Android), the events classes are never loaded.
+ * </p>
+ *
+ * <p>
+ * The event objects are passed around as {@link Object}s, so their classes are never linked by the callers.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class FlightEvents {
+
+    /**
+     * True if the flight recorder is available on this runtime.
+     */
+    public static final boolean AVAILABLE = isAvailable();
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Begins a transition event.
+     *
+     * @return the began event, or null if the event is disabled
+     */
+    public static Object beginTransition() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final TransitionEvent event = new TransitionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits a transition event.
+     *
+     * @param event the event returned from {@link FlightEvents#beginTransition()} (not null)
+     * @param machine the machine name
+     * @param fromState the state transiting from (nullable)
+     * @param toState the state transiting to (nullable)
+     */
+    public static void commitTransition(Object event, String machine, AutoState<?, ?> fromState,
+                                        AutoState<?, ?> toState) {
+        final TransitionEvent transitionEvent = (TransitionEvent) event;
+        transitionEvent.end();
+        if (!transitionEvent.shouldCommit()) {
+            return;
+        }
+        transitionEvent.machine = machine;
+        transitionEvent.fromState = String.valueOf(fromState);
+        transitionEvent.toState = String.valueOf(toState);
+        transitionEvent.commit();
+    }
+
+    /**
+     * Begins a path assignment event.
+     *
+     * @return the began event, or null if the event is disabled
+     */
+    public static Object beginPathAssignment() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final PathAssignmentEvent event = new PathAssignmentEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits a path assignment event.
+     *
+     * @param event the event returned from {@link FlightEvents#beginPathAssignment()} (not null)
+     * @param machine the machine name
+     * @param fromState the finished state (nullable)
+     * @param toState the assigned next state, or null if the path is over
+     * @param path the transition path name (nullable)
+     */
+    public static void commitPathAssignment(Object event, String machine, AutoState<?, ?> fromState,
+                                            AutoState<?, ?> toState, String path) {
+        final PathAssignmentEvent pathAssignmentEvent = (PathAssignmentEvent) event;
+        pathAssignmentEvent.end();
+        if (!pathAssignmentEvent.shouldCommit()) {
+            return;
+        }
+        pathAssignmentEvent.machine = machine;
+        pathAssignmentEvent.fromState = String.valueOf(fromState);
+        pathAssignmentEvent.toState = String.valueOf(toState);
+        pathAssignmentEvent.path = path;
+        pathAssignmentEvent.commit();
+    }
+
+    /**
+     * Begins a state invoke event.
+     *
+     * @return the began event, or null if the event is disabled
+     */
+    public static Object beginStateInvoke() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final StateInvokeEvent event = new StateInvokeEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Tests whether the state invoke events are enabled, e.g: to time the invokes of the specialized dispatchers.
+     *
+     * @return true if a recording is running with the state invoke events enabled, false otherwise
+     */
+    public static boolean isStateInvokeEnabled() {
+        return AVAILABLE && new StateInvokeEvent().isEnabled();
+    }
+
+    /**
+     * Commits a state invoke event.
+     *
+     * @param event the event returned from {@link FlightEvents#beginStateInvoke()} (not null)
+     * @param machine the machine name
+     * @param autoState the invoked state
+     */
+    public static void commitStateInvoke(Object event, String machine, AutoState<?, ?> autoState) {
+        final StateInvokeEvent stateInvokeEvent = (StateInvokeEvent) event;
+        stateInvokeEvent.end();
+        if (!stateInvokeEvent.shouldCommit()) {
+            return;
+        }
+        stateInvokeEvent.machine = machine;
+        stateInvokeEvent.state = String.valueOf(autoState);
+        stateInvokeEvent.commit();
+    }
+
+    /**
+     * Begins a cascade drain event.
+     *
+     * @return the began event, or null if the event is disabled
+     */
+    public static Object beginCascadeDrain() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        final CascadeDrainEvent event = new CascadeDrainEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits a cascade drain event.
+     *
+     * @param event the event returned from {@link FlightEvents#beginCascadeDrain()} (not null)
+     * @param path the cascade name
+     * @param polledStates the number of states polled since the cascade has begun
+     */
+    public static void commitCascadeDrain(Object event, String path, int polledStates) {
+        final CascadeDrainEvent cascadeDrainEvent = (CascadeDrainEvent) event;
+        cascadeDrainEvent.end();
+        if (!cascadeDrainEvent.shouldCommit()) {
+            return;
+        }
+        cascadeDrainEvent.path = path;
+        cascadeDrainEvent.polledStates = polledStates;
+        cascadeDrainEvent.commit();
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.listener;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Hands the transitions of a machine over to a daemon thread through a preallocated ring buffer, so slow
+ * listeners (e.g: audit and metrics exporters) are taken off the transition latency.
+ *
+ * <p>
+ * The daemon thread dispatches the transitions in order to a {@link TransitionListener} one by one, or to
+ * a {@link BatchTransitionListener} in batches of the available transitions. The transitions are dropped
+ * if the ring buffer is full, or if the listener is closed, see {@link AsyncTransitionListener#getDroppedCount()}.
+ * The states are handed over by reference, thus the delegate listener shouldn't rely on their mutable data.
+ * </p>
+ *
+ * <p>
+ * The ring buffer is a single-producer ring, publishing a transition is a few plain and volatile stores with
+ * no locking, so the transitions of a listener object should be dispatched by one machine thread at a time.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class AsyncTransitionListener<I, O> implements FlushableTransitionListener<I, O>, AutoCloseable {
+
+    /**
+     * The default ring buffer capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+
+    private static final int MAX_BATCH = 256;
+
+    private final TransitionListener<I, O> listener;
+    private final BatchTransitionListener<I, O> batchListener;
+    private final AutoState<I, O>[] ring;
+    private final AutoState<I, O>[] drained;
+    private final int mask;
+    private final Thread drainer;
+    private final AtomicLong dropped = new AtomicLong();
+    /* the next index to poll, written by the drainer only */
+    private volatile long head;
+    /* the next index to publish, written by the producer only */
+    private volatile long tail;
+    private volatile boolean parked;
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates an asynchronous listener dispatching the transitions one by one, and starts its daemon thread.
+     *
+     * @param listener the delegate listener (not null)
+     * @param capacity the ring buffer capacity, rounded up to a power of 2 (positive)
+     */
+    public AsyncTransitionListener(TransitionListener<I, O> listener, int capacity) {
+        this(requireListener(listener), null, capacity);
+    }
+
+    /**
+     * Instantiates an asynchronous listener dispatching the transitions in batches, and starts its daemon thread.
+     *
+     * @param batchListener the delegate batch listener (not null)
+     * @param capacity the ring buffer capacity, rounded up to a power of 2 (positive)
+     */
+    public AsyncTransitionListener(BatchTransitionListener<I, O> batchListener, int capacity) {
+        this(null, requireListener(batchListener), capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncTransitionListener(TransitionListener<I, O> listener, BatchTransitionListener<I, O> batchListener,
+                                    int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity is out of range!");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.listener = listener;
+        this.batchListener = batchListener;
+        this.ring = (AutoState<I, O>[]) new AutoState<?, ?>[size];
+        this.drained = (AutoState<I, O>[]) new AutoState<?, ?>[Math.min(size, MAX_BATCH)];
+        this.mask = size - 1;
+        this.drainer = new Thread(this::run, "Automata4j-Listener");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    @Override
+    public void onTransition(AutoState<I, O> presentState) {
+        final long tail = this.tail;
+        if (!running || tail - head == ring.length) {
+            dropped.incrementAndGet();
+            return;
+        }
+        ring[(int) tail & mask] = presentState;
+        /* publishes the state, the volatile store orders it before the new tail */
+        this.tail = tail + 1;
+        /* the drainer announces parking before it re-checks the tail, so either side sees the other */
+        if (parked) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /**
+     * Wakes the daemon thread up to dispatch the pending transitions.
+     */
+    @Override
+    public void flush() {
+        LockSupport.unpark(drainer);
+    }
+
+    /**
+     * Stops the daemon thread after it dispatches the pending transitions, the transitions published
+     * after this are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        /* drops the transitions published while the drainer was exiting */
+        final long pending = tail - head;
+        if (pending > 0) {
+            Arrays.fill(ring, null);
+            head += pending;
+            dropped.addAndGet(pending);
+        }
+    }
+
+    /**
+     * Retrieves the number of the transitions dropped on a full ring buffer, or after closing.
+     *
+     * @return the number of the dropped transitions
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieves the number of the pending transitions.
+     *
+     * @return the number of the transitions in the ring buffer
+     */
+    public int getPendingCount() {
+        final long head = this.head;
+        return (int) (tail - head);
+    }
+
+    private static <T> T requireListener(T listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Cannot accept null listeners!");
+        }
+        return listener;
+    }
+
+    private int poll() {
+        final long head = this.head;
+        final int count = (int) Math.min(tail - head, drained.length);
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (head + i) & mask;
+            drained[i] = ring[index];
+            ring[index] = null;
+        }
+        /* releases the polled slots to the producer */
+        this.head = head + count;
+        return count;
+    }
+
+    private void run() {
+        while (true) {
+            final int count = poll();
+            if (count == 0) {
+                if (!running) {
+                    return;
+                }
+                parked = true;
+                if (tail == head && running) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+                continue;
+            }
+            try {
+                if (batchListener != null) {
+                    batchListener.onTransitions(drained, count);
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        listener.onTransition(drained[i]);
+                    }
+                }
+            } catch (RuntimeException e) {
+                /* a failing listener shouldn't kill the drainer */
+                AutomataLogger.log(Level.WARNING, AsyncTransitionListener.class.getName(), "run()",
+                        "Failed to dispatch transitions!", e);
+            }
+            Arrays.fill(drained, 0, count, null);
+        }
+    }
+}
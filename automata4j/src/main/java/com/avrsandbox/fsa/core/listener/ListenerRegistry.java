@@ -0,0 +1,211 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.listener;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import java.util.Arrays;
+
+/**
+ * Fans out the transitions of a machine to many listeners, the registry is passed as the single listener
+ * of {@link com.avrsandbox.fsa.core.TransitionalManager#transit(Object, TransitionListener)}.
+ *
+ * <p>
+ * The listeners are stored in copy-on-write arrays, so adding and removing them is thread-safe, while
+ * the dispatching iterates a plain array without locking. The {@link TransitionListener}s are dispatched on
+ * each transition, while the transitions are buffered for the {@link BatchTransitionListener}s until the
+ * registry is flushed or its batch buffer is full. A registry delegated by a
+ * {@link com.avrsandbox.fsa.core.state.NextStateAssigner} is flushed when its transition path is drained, and
+ * {@link com.avrsandbox.fsa.core.mailbox.Mailbox} flushes it after each batch; otherwise, the callers should call
+ * {@link ListenerRegistry#flush()} explicitly. The dispatching belongs to the machine thread.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class ListenerRegistry<I, O> implements FlushableTransitionListener<I, O> {
+
+    /**
+     * The default batch buffer capacity.
+     */
+    public static final int DEFAULT_BATCH_CAPACITY = 256;
+
+    @SuppressWarnings("rawtypes")
+    private static final TransitionListener[] NO_LISTENERS = new TransitionListener[0];
+    @SuppressWarnings("rawtypes")
+    private static final BatchTransitionListener[] NO_BATCH_LISTENERS = new BatchTransitionListener[0];
+
+    private final AutoState<I, O>[] batch;
+    private int count;
+    private volatile TransitionListener<I, O>[] listeners;
+    private volatile BatchTransitionListener<I, O>[] batchListeners;
+
+    /**
+     * Instantiates an empty registry with the default batch buffer capacity.
+     */
+    public ListenerRegistry() {
+        this(DEFAULT_BATCH_CAPACITY);
+    }
+
+    /**
+     * Instantiates an empty registry.
+     *
+     * @param batchCapacity the maximum number of the buffered transitions of a batch (positive)
+     */
+    @SuppressWarnings("unchecked")
+    public ListenerRegistry(int batchCapacity) {
+        if (batchCapacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive!");
+        }
+        this.batch = (AutoState<I, O>[]) new AutoState<?, ?>[batchCapacity];
+        this.listeners = NO_LISTENERS;
+        this.batchListeners = NO_BATCH_LISTENERS;
+    }
+
+    /**
+     * Adds a listener dispatched on each transition.
+     *
+     * @param listener the listener object (not null)
+     */
+    public synchronized void addListener(TransitionListener<I, O> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Cannot accept null listeners!");
+        }
+        final TransitionListener<I, O>[] listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener object
+     * @return true if the listener is removed, false if it's not found
+     */
+    public synchronized boolean removeListener(TransitionListener<I, O> listener) {
+        final int index = indexOf(listeners, listener);
+        if (index < 0) {
+            return false;
+        }
+        listeners = remove(listeners, index);
+        return true;
+    }
+
+    /**
+     * Adds a listener dispatched with the batches of the transitions.
+     *
+     * @param listener the batch listener object (not null)
+     */
+    public synchronized void addBatchListener(BatchTransitionListener<I, O> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Cannot accept null listeners!");
+        }
+        final BatchTransitionListener<I, O>[] batchListeners =
+                Arrays.copyOf(this.batchListeners, this.batchListeners.length + 1);
+        batchListeners[batchListeners.length - 1] = listener;
+        this.batchListeners = batchListeners;
+    }
+
+    /**
+     * Removes a batch listener.
+     *
+     * @param listener the batch listener object
+     * @return true if the listener is removed, false if it's not found
+     */
+    public synchronized boolean removeBatchListener(BatchTransitionListener<I, O> listener) {
+        final int index = indexOf(batchListeners, listener);
+        if (index < 0) {
+            return false;
+        }
+        batchListeners = remove(batchListeners, index);
+        return true;
+    }
+
+    @Override
+    public void onTransition(AutoState<I, O> presentState) {
+        /* buffers the transition first, as a listener may transit the machine again (i.e: recursive transits) */
+        if (batchListeners.length != 0) {
+            batch[count++] = presentState;
+            if (count == batch.length) {
+                flush();
+            }
+        }
+        final TransitionListener<I, O>[] listeners = this.listeners;
+        for (TransitionListener<I, O> listener : listeners) {
+            listener.onTransition(presentState);
+        }
+    }
+
+    /**
+     * Dispatches the buffered transitions to the batch listeners.
+     */
+    @Override
+    public void flush() {
+        if (count == 0) {
+            return;
+        }
+        final int count = this.count;
+        this.count = 0;
+        try {
+            for (BatchTransitionListener<I, O> listener : batchListeners) {
+                listener.onTransitions(batch, count);
+            }
+        } finally {
+            Arrays.fill(batch, 0, count, null);
+        }
+    }
+
+    /**
+     * Retrieves the number of the registered listeners, including the batch listeners.
+     *
+     * @return the number of the listeners
+     */
+    public int getListenersCount() {
+        return listeners.length + batchListeners.length;
+    }
+
+    private static int indexOf(Object[] array, Object element) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == element) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> T[] remove(T[] array, int index) {
+        final T[] removed = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, removed, index, array.length - index - 1);
+        return removed;
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.mailbox;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.listener.FlushableTransitionListener;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * A bounded, prioritized mailbox in front of a {@link TransitionalManager}, the producers post events
+ * into priority lanes, and a single drainer at a time transits the machine with them.
+ *
+ * <p>
+ * An event is an input to transit with, optionally paired with the state to transit into. The lanes are
+ * drained in priority order, lane zero first, and the lanes are re-examined before each event, so a control
+ * event preempts the pending data events even in the middle of a batch. Each lane is a preallocated ring
+ * of a fixed capacity, posting into a full lane fails instead of blocking the producer.
+ * </p>
+ *
+ * <p>
+ * The mailbox is drained either explicitly using {@link Mailbox#drain(int)}, or by an {@link Executor},
+ * where a drain task of a bounded batch (the scheduling quantum) is submitted whenever the mailbox has
+ * pending events, and resubmitted as long as it has.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class Mailbox<I, O> {
+
+    /**
+     * The lane of the control events in a two-lanes mailbox, e.g: cancel and abort events.
+     */
+    public static final int CONTROL = 0;
+
+    /**
+     * The lane of the data events in a two-lanes mailbox.
+     */
+    public static final int DATA = 1;
+
+    private final TransitionalManager<I, O> manager;
+    private final Lane[] lanes;
+    private final Object lock = new Object();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Executor executor;
+    private final int quantum;
+    private final Runnable drainTask = this::drainScheduled;
+    private volatile TransitionListener<I, O> transitionListener;
+
+    /* the polled event, accessed by the drainer only */
+    private AutoState<I, O> polledState;
+    private I polledInput;
+
+    /**
+     * Instantiates a two-lanes mailbox ({@link Mailbox#CONTROL} and {@link Mailbox#DATA}) drained explicitly.
+     *
+     * @param manager the machine to transit (not null)
+     * @param capacity the capacity of each lane (positive)
+     */
+    public Mailbox(TransitionalManager<I, O> manager, int capacity) {
+        this(manager, 2, capacity, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Instantiates a mailbox.
+     *
+     * @param manager the machine to transit (not null)
+     * @param lanes the number of the priority lanes, lane zero has the highest priority (positive)
+     * @param capacity the capacity of each lane (positive)
+     * @param executor the executor to drain the mailbox on, or null to drain it explicitly
+     * @param quantum the maximum number of events per scheduled drain (positive)
+     */
+    public Mailbox(TransitionalManager<I, O> manager, int lanes, int capacity, Executor executor, int quantum) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Cannot accept null managers!");
+        }
+        if (lanes <= 0 || capacity <= 0 || quantum <= 0) {
+            throw new IllegalArgumentException("Lanes count, capacity and quantum must be positive!");
+        }
+        this.manager = manager;
+        this.lanes = new Lane[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane(capacity);
+        }
+        this.executor = executor;
+        this.quantum = quantum;
+    }
+
+    /**
+     * Posts an input to transit into the assigned next state with.
+     *
+     * @param lane the priority lane
+     * @param input the state input
+     * @return true if the event is posted, false if the lane is full
+     */
+    public boolean offer(int lane, I input) {
+        return offer(lane, null, input);
+    }
+
+    /**
+     * Posts a state to transit into with an input.
+     *
+     * @param lane the priority lane
+     * @param autoState the state to transit into, or null to transit into the assigned next state
+     * @param input the state input
+     * @return true if the event is posted, false if the lane is full
+     */
+    public boolean offer(int lane, AutoState<I, O> autoState, I input) {
+        if (lane < 0 || lane >= lanes.length) {
+            throw new IllegalArgumentException("Lane " + lane + " is out of range!");
+        }
+        synchronized (lock) {
+            if (!lanes[lane].offer(autoState, input)) {
+                return false;
+            }
+        }
+        if (executor != null) {
+            schedule();
+        }
+        return true;
+    }
+
+    /**
+     * Drains up to a batch of events, the highest priority events first; returns immediately if the
+     * mailbox is being drained by another thread.
+     *
+     * @param maxBatch the maximum number of events to process
+     * @return the number of the processed events
+     */
+    public int drain(int maxBatch) {
+        if (!draining.compareAndSet(false, true)) {
+            return 0;
+        }
+        final int processed;
+        try {
+            processed = drain0(maxBatch);
+        } finally {
+            draining.set(false);
+        }
+        if (executor != null && !isEmpty()) {
+            schedule();
+        }
+        return processed;
+    }
+
+    /**
+     * Discards the pending events of a lane, e.g: the data events after an abort.
+     *
+     * @param lane the priority lane
+     * @return the number of the discarded events
+     */
+    public int clear(int lane) {
+        if (lane < 0 || lane >= lanes.length) {
+            throw new IllegalArgumentException("Lane " + lane + " is out of range!");
+        }
+        synchronized (lock) {
+            return lanes[lane].clear();
+        }
+    }
+
+    /**
+     * Retrieves the number of the pending events.
+     *
+     * @return the number of the pending events in all the lanes
+     */
+    public int size() {
+        synchronized (lock) {
+            int size = 0;
+            for (Lane lane : lanes) {
+                size += lane.count;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Retrieves the number of the pending events in a lane.
+     *
+     * @param lane the priority lane
+     * @return the number of the pending events in the lane
+     */
+    public int size(int lane) {
+        synchronized (lock) {
+            return lanes[lane].count;
+        }
+    }
+
+    /**
+     * Tests whether the mailbox has no pending events.
+     *
+     * @return true if all the lanes are empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Sets the transition listener fired after each drained event, a {@link FlushableTransitionListener}
+     * is flushed at the end of each batch.
+     *
+     * @param transitionListener the listener object (nullable)
+     */
+    public void setTransitionListener(TransitionListener<I, O> transitionListener) {
+        this.transitionListener = transitionListener;
+    }
+
+    /**
+     * Retrieves the machine behind this mailbox.
+     *
+     * @return the transitional manager object
+     */
+    public TransitionalManager<I, O> getManager() {
+        return manager;
+    }
+
+    private int drain0(int maxBatch) {
+        final TransitionListener<I, O> transitionListener = this.transitionListener;
+        int processed = 0;
+        while (processed < maxBatch && poll()) {
+            final AutoState<I, O> autoState = polledState;
+            final I input = polledInput;
+            polledState = null;
+            polledInput = null;
+            if (autoState != null) {
+                manager.assignNextState(autoState);
+            }
+            manager.transit(input, transitionListener);
+            processed++;
+        }
+        if (processed > 0 && transitionListener instanceof FlushableTransitionListener) {
+            ((FlushableTransitionListener<I, O>) transitionListener).flush();
+        }
+        return processed;
+    }
+
+    /**
+     * Polls the highest priority event into the polled fields.
+     *
+     * @return true if an event is polled, false if the mailbox is empty
+     */
+    @SuppressWarnings("unchecked")
+    private boolean poll() {
+        synchronized (lock) {
+            for (Lane lane : lanes) {
+                if (lane.count > 0) {
+                    polledState = (AutoState<I, O>) lane.states[lane.head];
+                    polledInput = (I) lane.inputs[lane.head];
+                    lane.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private void drainScheduled() {
+        try {
+            drain0(quantum);
+        } catch (RuntimeException e) {
+            AutomataLogger.log(Level.SEVERE, Mailbox.class.getName(), "drainScheduled()",
+                    "Transition failure in " + manager.getName() + "!", e);
+        } finally {
+            draining.set(false);
+        }
+        if (!isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * A fixed-capacity ring of events, guarded by the mailbox lock.
+     */
+    private static final class Lane {
+
+        private final Object[] states;
+        private final Object[] inputs;
+        private int head;
+        private int count;
+
+        Lane(int capacity) {
+            this.states = new Object[capacity];
+            this.inputs = new Object[capacity];
+        }
+
+        boolean offer(Object autoState, Object input) {
+            if (count == inputs.length) {
+                return false;
+            }
+            int tail = head + count;
+            if (tail >= inputs.length) {
+                tail -= inputs.length;
+            }
+            states[tail] = autoState;
+            inputs[tail] = input;
+            count++;
+            return true;
+        }
+
+        void remove() {
+            states[head] = null;
+            inputs[head] = null;
+            if (++head == inputs.length) {
+                head = 0;
+            }
+            count--;
+        }
+
+        int clear() {
+            final int cleared = count;
+            while (count > 0) {
+                states[head] = null;
+                inputs[head] = null;
+                if (++head == inputs.length) {
+                    head = 0;
+                }
+                count--;
+            }
+            return cleared;
+        }
+    }
+}
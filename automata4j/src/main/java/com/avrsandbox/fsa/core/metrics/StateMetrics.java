@@ -0,0 +1,123 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.metrics;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live metrics of a single {@link AutoState}, its entries count, its outgoing edges counts and the latency
+ * histograms of its phases.
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class StateMetrics<I, O> {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final AutoState<I, O> autoState;
+    private final LongAdder entries = new LongAdder();
+    /* the outgoing edges keyed by their target state, so counting an edge doesn't allocate a key */
+    private final ConcurrentHashMap<AutoState<I, O>, LongAdder> edges = new ConcurrentHashMap<>();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[PHASES.length];
+
+    StateMetrics(AutoState<I, O> autoState) {
+        this.autoState = autoState;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    void recordEntry() {
+        entries.increment();
+    }
+
+    void recordEdge(AutoState<I, O> nextState) {
+        LongAdder edge = edges.get(nextState);
+        if (edge == null) {
+            edge = edges.computeIfAbsent(nextState, state -> new LongAdder());
+        }
+        edge.increment();
+    }
+
+    void recordLatency(Phase phase, long nanos) {
+        latencies[phase.ordinal()].record(nanos);
+    }
+
+    void reset() {
+        entries.reset();
+        edges.values().forEach(LongAdder::reset);
+        for (LatencyHistogram latency : latencies) {
+            latency.reset();
+        }
+    }
+
+    /**
+     * Retrieves the state of these metrics.
+     *
+     * @return the state object
+     */
+    public AutoState<I, O> getState() {
+        return autoState;
+    }
+
+    /**
+     * Retrieves the live latency histogram of a phase.
+     *
+     * @param phase the timed phase
+     * @return the latency histogram in nanoseconds
+     */
+    public LatencyHistogram getLatency(Phase phase) {
+        return latencies[phase.ordinal()];
+    }
+
+    /**
+     * Takes a snapshot of these metrics.
+     *
+     * @return a new state snapshot
+     */
+    public StateSnapshot<I, O> snapshot() {
+        final Map<AutoState<I, O>, Long> edges = new LinkedHashMap<>();
+        this.edges.forEach((state, count) -> edges.put(state, count.sum()));
+        final HistogramSnapshot[] latencies = new HistogramSnapshot[PHASES.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = this.latencies[i].snapshot();
+        }
+        return new StateSnapshot<>(autoState, entries.sum(), Collections.unmodifiableMap(edges), latencies);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.metrics;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the {@link StateMetrics} of a state.
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class StateSnapshot<I, O> {
+
+    private final AutoState<I, O> autoState;
+    private final long entries;
+    private final Map<AutoState<I, O>, Long> edges;
+    private final HistogramSnapshot[] latencies;
+
+    StateSnapshot(AutoState<I, O> autoState, long entries, Map<AutoState<I, O>, Long> edges,
+                  HistogramSnapshot[] latencies) {
+        this.autoState = autoState;
+        this.entries = entries;
+        this.edges = edges;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Retrieves the state of this snapshot.
+     *
+     * @return the state object
+     */
+    public AutoState<I, O> getState() {
+        return autoState;
+    }
+
+    /**
+     * Retrieves the number of transitions into this state.
+     *
+     * @return the entries count
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Retrieves the transitions counts from this state keyed by their next states.
+     *
+     * @return an unmodifiable map of the outgoing edges counts
+     */
+    public Map<AutoState<I, O>, Long> getEdges() {
+        return edges;
+    }
+
+    /**
+     * Retrieves the latency snapshot of a phase.
+     *
+     * @param phase the timed phase
+     * @return the latency histogram snapshot in nanoseconds
+     */
+    public HistogramSnapshot getLatency(Phase phase) {
+        return latencies[phase.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return autoState + ": entries=" + entries + ", edges=" + edges
+                + ", invoke=[" + getLatency(Phase.INVOKE) + "]";
+    }
+}
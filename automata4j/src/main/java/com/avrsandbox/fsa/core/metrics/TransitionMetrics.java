@@ -0,0 +1,123 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.metrics;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the metrics of the transitions of one or more {@link TransitionalManager}s, per-state entries counts,
+ * per-edge transitions counts and per-phase latency histograms.
+ *
+ * <p>
+ * The metrics are opt-in using {@link TransitionalManager#setMetrics(TransitionMetrics)}, after the first transition
+ * into a state, recording its metrics is a few {@link java.util.concurrent.atomic.LongAdder} and histogram increments
+ * with no allocation.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class TransitionMetrics<I, O> {
+
+    private final ConcurrentHashMap<AutoState<I, O>, StateMetrics<I, O>> states = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates an empty metrics collector.
+     */
+    public TransitionMetrics() {
+    }
+
+    /**
+     * Records a transition between two states.
+     *
+     * @param presentState the state transiting from (nullable for the first transition)
+     * @param nextState the state transiting to
+     * @return the metrics of the next state, to record its phases latencies
+     */
+    public StateMetrics<I, O> recordTransition(AutoState<I, O> presentState, AutoState<I, O> nextState) {
+        final StateMetrics<I, O> next = getMetrics(nextState);
+        next.recordEntry();
+        if (presentState != null) {
+            getMetrics(presentState).recordEdge(nextState);
+        }
+        return next;
+    }
+
+    /**
+     * Records the latency of a phase of a state.
+     *
+     * @param stateMetrics the metrics of the state
+     * @param phase the timed phase
+     * @param nanos the phase latency in nanoseconds
+     */
+    public void recordLatency(StateMetrics<I, O> stateMetrics, Phase phase, long nanos) {
+        stateMetrics.recordLatency(phase, nanos);
+    }
+
+    /**
+     * Retrieves the live metrics of a state, creating them if not found.
+     *
+     * @param autoState the state object
+     * @return the state metrics
+     */
+    public StateMetrics<I, O> getMetrics(AutoState<I, O> autoState) {
+        final StateMetrics<I, O> stateMetrics = states.get(autoState);
+        if (stateMetrics != null) {
+            return stateMetrics;
+        }
+        return states.computeIfAbsent(autoState, StateMetrics::new);
+    }
+
+    /**
+     * Takes a snapshot of the metrics of all the recorded states.
+     *
+     * @return an unmodifiable map of the states snapshots keyed by their states
+     */
+    public Map<AutoState<I, O>, StateSnapshot<I, O>> snapshot() {
+        final Map<AutoState<I, O>, StateSnapshot<I, O>> snapshot = new LinkedHashMap<>();
+        states.forEach((state, metrics) -> snapshot.put(state, metrics.snapshot()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Resets all the recorded metrics, the states remain registered.
+     */
+    public void reset() {
+        states.values().forEach(StateMetrics::reset);
+    }
+}
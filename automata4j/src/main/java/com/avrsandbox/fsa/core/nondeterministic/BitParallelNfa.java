@@ -0,0 +1,378 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.nondeterministic;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled non-deterministic machine simulated bit-parallel, the set of the active states is kept in
+ * 1 to 4 {@code long} words and a transition is a few shifts, ands and ors regardless of the active states count.
+ *
+ * <p>
+ * The machine is compiled into a Glushkov-like (homogeneous) form, in which all the transitions into a position
+ * share the same symbol, so a step is {@code D' = Follow(D) & B[symbol]}; each state is split into a position per
+ * distinct symbol it's entered on, plus a dedicated initial position.
+ * </p>
+ *
+ * <p>
+ * The transitions from a position to the next position are followed by a single shift (Shift-And), the positions
+ * are numbered in the order of the transitions, so chains like signatures compile into shifts only; the rest of
+ * the follow sets are tabulated per byte chunk of the active set, so they're an or of at most 8 table entries per word.
+ * </p>
+ *
+ * <p>
+ * The compiled machine is immutable and can be shared, use {@link BitParallelNfa#newMatcher()} to run it;
+ * the states can be bound to {@link AutoState}s, so the active states can be handed to the object-based
+ * {@link com.avrsandbox.fsa.core.TransitionalManager}s.
+ * </p>
+ *
+ * @param <I> the bound states input type
+ * @param <O> the bound states tracer object type
+ * @author pavl_g
+ */
+public final class BitParallelNfa<I, O> {
+
+    /**
+     * The maximum number of positions (split states), 4 words.
+     */
+    public static final int MAX_POSITIONS = Long.SIZE * 4;
+
+    static final int CHUNKS_PER_WORD = Long.BYTES;
+    static final int CHUNK_VALUES = 1 << Byte.SIZE;
+
+    final int words;
+    final int symbols;
+    final boolean searching;
+    /* the positions followed by their next position */
+    final long[] shifting;
+    /* the positions with tabulated follow sets */
+    final long[] irregular;
+    /* tabulated follow sets per byte chunk: ((word * 8 + chunk) * 256 + value) * words + word */
+    final long[] follow;
+    /* positions entered on each symbol: symbol * words + word */
+    final long[] entered;
+    final long[] accepting;
+    final long[] initial;
+    final int[] positionStates;
+    private final int statesCount;
+    private final AutoState<I, O>[] boundStates;
+
+    private BitParallelNfa(int words, int symbols, boolean searching, long[] shifting, long[] irregular, long[] follow,
+                           long[] entered, long[] accepting, long[] initial, int[] positionStates, int statesCount,
+                           AutoState<I, O>[] boundStates) {
+        this.words = words;
+        this.symbols = symbols;
+        this.searching = searching;
+        this.shifting = shifting;
+        this.irregular = irregular;
+        this.follow = follow;
+        this.entered = entered;
+        this.accepting = accepting;
+        this.initial = initial;
+        this.positionStates = positionStates;
+        this.statesCount = statesCount;
+        this.boundStates = boundStates;
+    }
+
+    /**
+     * Instantiates a new matcher at the initial state of this machine.
+     *
+     * @return a new matcher object
+     */
+    public NfaMatcher<I, O> newMatcher() {
+        return new NfaMatcher<>(this);
+    }
+
+    /**
+     * Retrieves the number of the positions (split states) of the compiled machine.
+     *
+     * @return the positions count, at most {@link BitParallelNfa#MAX_POSITIONS}
+     */
+    public int getPositionsCount() {
+        return positionStates.length;
+    }
+
+    /**
+     * Retrieves the number of the states of the machine definition.
+     *
+     * @return the states count
+     */
+    public int getStatesCount() {
+        return statesCount;
+    }
+
+    /**
+     * Retrieves the number of the input symbols.
+     *
+     * @return the symbols count
+     */
+    public int getSymbolsCount() {
+        return symbols;
+    }
+
+    /**
+     * Retrieves the number of {@code long} words holding the active set.
+     *
+     * @return the words count in the range [1, 4]
+     */
+    public int getWordsCount() {
+        return words;
+    }
+
+    /**
+     * Tests whether the machine is searching, i.e: it restarts from the initial state at each input symbol.
+     *
+     * @return true if the machine is searching, false if it's anchored at the start of the input
+     */
+    public boolean isSearching() {
+        return searching;
+    }
+
+    /**
+     * Retrieves the {@link AutoState} bound to a state.
+     *
+     * @param state the state id
+     * @return the bound auto state, or null if the state is not bound
+     */
+    public AutoState<I, O> getBoundState(int state) {
+        return boundStates[state];
+    }
+
+    /**
+     * Builds a {@link BitParallelNfa} out of states, labelled transitions, an initial state and accepting states.
+     *
+     * @param <I> the bound states input type
+     * @param <O> the bound states tracer object type
+     */
+    public static final class Builder<I, O> {
+
+        private final int states;
+        private final int symbols;
+        private final List<int[]> transitions = new ArrayList<>();
+        private final boolean[] acceptingStates;
+        private final AutoState<I, O>[] boundStates;
+        private int initialState;
+        private boolean searching;
+
+        /**
+         * Instantiates a machine builder.
+         *
+         * @param states the number of states (positive)
+         * @param symbols the number of input symbols, 256 for byte inputs (positive)
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public Builder(int states, int symbols) {
+            if (states <= 0 || symbols <= 0) {
+                throw new IllegalArgumentException("States and symbols counts must be positive!");
+            }
+            this.states = states;
+            this.symbols = symbols;
+            this.acceptingStates = new boolean[states];
+            this.boundStates = new AutoState[states];
+        }
+
+        /**
+         * Adds a transition, a state may have several transitions on the same symbol.
+         *
+         * @param state the present state
+         * @param symbol the input symbol
+         * @param nextState the next state
+         * @return this builder for chained invocations
+         */
+        public Builder<I, O> transition(int state, int symbol, int nextState) {
+            checkState(state);
+            checkState(nextState);
+            if (symbol < 0 || symbol >= symbols) {
+                throw new IllegalArgumentException("Symbol " + symbol + " is out of range!");
+            }
+            transitions.add(new int[] {state, symbol, nextState});
+            return this;
+        }
+
+        /**
+         * Adds a chain of transitions spelling a byte sequence (e.g: a protocol signature) over the consecutive
+         * states from {@code state} to {@code state + sequence.length}.
+         *
+         * @param state the state to start the sequence from
+         * @param sequence the byte sequence
+         * @return this builder for chained invocations
+         */
+        public Builder<I, O> sequence(int state, byte[] sequence) {
+            for (int i = 0; i < sequence.length; i++) {
+                transition(state + i, sequence[i] & 0xFF, state + i + 1);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the initial state, defaults to zero.
+         *
+         * @param state the initial state
+         * @return this builder for chained invocations
+         */
+        public Builder<I, O> initial(int state) {
+            checkState(state);
+            initialState = state;
+            return this;
+        }
+
+        /**
+         * Marks a state as an accepting state.
+         *
+         * @param state the accepting state
+         * @return this builder for chained invocations
+         */
+        public Builder<I, O> accepting(int state) {
+            checkState(state);
+            acceptingStates[state] = true;
+            return this;
+        }
+
+        /**
+         * Sets the searching mode, a searching machine restarts from the initial state at each input symbol,
+         * so it accepts whenever a suffix of the input is accepted.
+         *
+         * @param searching true to search, false to anchor the machine at the start of the input (default)
+         * @return this builder for chained invocations
+         */
+        public Builder<I, O> searching(boolean searching) {
+            this.searching = searching;
+            return this;
+        }
+
+        /**
+         * Binds an {@link AutoState} to a state.
+         *
+         * @param state the state id
+         * @param autoState the auto state to bind
+         * @return this builder for chained invocations
+         */
+        public Builder<I, O> bind(int state, AutoState<I, O> autoState) {
+            checkState(state);
+            boundStates[state] = autoState;
+            return this;
+        }
+
+        /**
+         * Compiles the machine.
+         *
+         * @return a new bit-parallel machine
+         * @throws IllegalStateException if the compiled machine exceeds {@link BitParallelNfa#MAX_POSITIONS}
+         */
+        public BitParallelNfa<I, O> build() {
+            /* splits the states into positions, a position per (state, entering symbol), position 0 is initial */
+            final Map<Long, Integer> positions = new HashMap<>();
+            final List<Integer> positionStates = new ArrayList<>();
+            final List<Integer> positionSymbols = new ArrayList<>();
+            final List<List<Integer>> statePositions = new ArrayList<>();
+            for (int i = 0; i < states; i++) {
+                statePositions.add(new ArrayList<>());
+            }
+            positionStates.add(initialState);
+            positionSymbols.add(-1);
+            statePositions.get(initialState).add(0);
+            for (int[] transition : transitions) {
+                final long key = ((long) transition[2] << 32) | transition[1];
+                if (!positions.containsKey(key)) {
+                    positions.put(key, positionStates.size());
+                    statePositions.get(transition[2]).add(positionStates.size());
+                    positionStates.add(transition[2]);
+                    positionSymbols.add(transition[1]);
+                }
+            }
+            final int count = positionStates.size();
+            if (count > MAX_POSITIONS) {
+                throw new IllegalStateException("Machine compiles into " + count + " positions, at most "
+                        + MAX_POSITIONS + " are supported!");
+            }
+            final int words = (count + Long.SIZE - 1) / Long.SIZE;
+
+            /* the follow set of a position is the positions entered by the transitions out of its state */
+            final long[][] follows = new long[count][words];
+            final long[] shifting = new long[words];
+            final long[] irregular = new long[words];
+            for (int[] transition : transitions) {
+                final int target = positions.get(((long) transition[2] << 32) | transition[1]);
+                for (int position : statePositions.get(transition[0])) {
+                    if (target == position + 1) {
+                        shifting[position >>> 6] |= 1L << position;
+                    } else {
+                        follows[position][target >>> 6] |= 1L << target;
+                        irregular[position >>> 6] |= 1L << position;
+                    }
+                }
+            }
+            final long[] follow = new long[words * CHUNKS_PER_WORD * CHUNK_VALUES * words];
+            for (int position = 0; position < count; position++) {
+                final int chunk = position >>> 3;
+                final int bit = position & 7;
+                for (int value = 0; value < CHUNK_VALUES; value++) {
+                    if ((value & (1 << bit)) == 0) {
+                        continue;
+                    }
+                    final int base = (chunk * CHUNK_VALUES + value) * words;
+                    for (int word = 0; word < words; word++) {
+                        follow[base + word] |= follows[position][word];
+                    }
+                }
+            }
+
+            final long[] entered = new long[symbols * words];
+            final long[] accepting = new long[words];
+            final long[] initial = new long[words];
+            final int[] states = new int[count];
+            initial[0] = 1L;
+            for (int position = 0; position < count; position++) {
+                states[position] = positionStates.get(position);
+                if (positionSymbols.get(position) >= 0) {
+                    entered[positionSymbols.get(position) * words + (position >>> 6)] |= 1L << position;
+                }
+                if (acceptingStates[states[position]]) {
+                    accepting[position >>> 6] |= 1L << position;
+                }
+            }
+            return new BitParallelNfa<>(words, symbols, searching, shifting, irregular, follow, entered, accepting, initial, states,
+                    this.states, Arrays.copyOf(boundStates, boundStates.length));
+        }
+
+        private void checkState(int state) {
+            if (state < 0 || state >= states) {
+                throw new IllegalArgumentException("State " + state + " is out of range!");
+            }
+        }
+    }
+}
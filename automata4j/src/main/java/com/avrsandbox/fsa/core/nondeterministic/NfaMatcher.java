@@ -0,0 +1,301 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.nondeterministic;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a {@link BitParallelNfa}, holding its set of the active positions.
+ *
+ * <p>
+ * A matcher is not thread-safe, use a matcher per thread or per input stream.
+ * </p>
+ *
+ * @param <I> the bound states input type
+ * @param <O> the bound states tracer object type
+ * @author pavl_g
+ */
+public final class NfaMatcher<I, O> {
+
+    private final BitParallelNfa<I, O> nfa;
+    private final int words;
+    private final long[] active;
+    private final long[] next;
+    /* the stamps of the visited states, deduplicating the positions of the same state */
+    private final int[] visited;
+    private int stamp;
+    /* the single-word fast path */
+    private long active0;
+
+    NfaMatcher(BitParallelNfa<I, O> nfa) {
+        this.nfa = nfa;
+        this.words = nfa.words;
+        this.active = new long[words];
+        this.next = new long[words];
+        this.visited = new int[nfa.getStatesCount()];
+        reset();
+    }
+
+    /**
+     * Resets the matcher to the initial state.
+     */
+    public void reset() {
+        System.arraycopy(nfa.initial, 0, active, 0, words);
+        active0 = nfa.initial[0];
+    }
+
+    /**
+     * Advances the matcher by an input symbol.
+     *
+     * @param symbol the input symbol in the range [0, symbols)
+     */
+    public void step(int symbol) {
+        if (symbol < 0 || symbol >= nfa.symbols) {
+            throw new IllegalArgumentException("Symbol " + symbol + " is out of range!");
+        }
+        if (words == 1) {
+            active0 = step0(active0, symbol);
+            return;
+        }
+        final long[] follow = nfa.follow;
+        final long[] next = this.next;
+        if (nfa.searching) {
+            active[0] |= 1L;
+        }
+        long carry = 0;
+        for (int word = 0; word < words; word++) {
+            final long shifted = active[word] & nfa.shifting[word];
+            next[word] = (shifted << 1) | carry;
+            carry = shifted >>> (Long.SIZE - 1);
+        }
+        for (int word = 0; word < words; word++) {
+            long set = active[word] & nfa.irregular[word];
+            while (set != 0) {
+                final int shift = Long.numberOfTrailingZeros(set) & ~7;
+                final int value = (int) (set >>> shift) & 0xFF;
+                final int base = (((word << 3) + (shift >>> 3)) * BitParallelNfa.CHUNK_VALUES + value) * words;
+                for (int x = 0; x < words; x++) {
+                    next[x] |= follow[base + x];
+                }
+                set &= ~(0xFFL << shift);
+            }
+        }
+        final int entered = symbol * words;
+        for (int word = 0; word < words; word++) {
+            active[word] = next[word] & nfa.entered[entered + word];
+        }
+    }
+
+    /**
+     * Advances the matcher by a range of bytes, stopping at the first accepting byte if requested.
+     *
+     * @param buffer the input bytes, the machine must have 256 symbols
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @param stopOnAccept true to stop after the first byte that leads to an accepting state
+     * @return the number of the consumed bytes
+     */
+    public int feed(byte[] buffer, int offset, int length, boolean stopOnAccept) {
+        checkByteSymbols();
+        if (words == 1) {
+            return feed0(buffer, offset, length, stopOnAccept);
+        }
+        for (int i = 0; i < length; i++) {
+            step(buffer[offset + i] & 0xFF);
+            if (stopOnAccept && isAccepting()) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Advances the matcher by the remaining bytes of a buffer, stopping at the first accepting byte if requested;
+     * the buffer position is advanced by the consumed bytes.
+     *
+     * @param buffer the input bytes, the machine must have 256 symbols
+     * @param stopOnAccept true to stop after the first byte that leads to an accepting state
+     * @return the number of the consumed bytes
+     */
+    public int feed(ByteBuffer buffer, boolean stopOnAccept) {
+        checkByteSymbols();
+        final int start = buffer.position();
+        if (buffer.hasArray()) {
+            final int consumed = feed(buffer.array(), buffer.arrayOffset() + start, buffer.remaining(), stopOnAccept);
+            buffer.position(start + consumed);
+            return consumed;
+        }
+        while (buffer.hasRemaining()) {
+            step(buffer.get() & 0xFF);
+            if (stopOnAccept && isAccepting()) {
+                break;
+            }
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Tests whether an accepting state is active.
+     *
+     * @return true if an accepting state is active, false otherwise
+     */
+    public boolean isAccepting() {
+        if (words == 1) {
+            return (active0 & nfa.accepting[0]) != 0;
+        }
+        for (int word = 0; word < words; word++) {
+            if ((active[word] & nfa.accepting[word]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests whether no state is active, an anchored dead matcher never accepts again until it's reset.
+     *
+     * @return true if no state is active, false otherwise
+     */
+    public boolean isDead() {
+        if (words == 1) {
+            return active0 == 0;
+        }
+        for (int word = 0; word < words; word++) {
+            if (active[word] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dispatches the ids of the active states of the machine definition, each state is dispatched once.
+     *
+     * @param action the action to dispatch for each active state id
+     */
+    public void forEachActiveState(IntConsumer action) {
+        if (++stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        for (int word = 0; word < words; word++) {
+            long set = words == 1 ? active0 : active[word];
+            while (set != 0) {
+                final int position = (word << 6) + Long.numberOfTrailingZeros(set);
+                final int state = nfa.positionStates[position];
+                if (visited[state] != stamp) {
+                    visited[state] = stamp;
+                    action.accept(state);
+                }
+                set &= set - 1;
+            }
+        }
+    }
+
+    /**
+     * Dispatches the {@link AutoState}s bound to the active states, the unbound states are skipped.
+     *
+     * @param action the action to dispatch for each bound active state
+     */
+    public void forEachActiveAutoState(Consumer<AutoState<I, O>> action) {
+        forEachActiveState(state -> {
+            final AutoState<I, O> autoState = nfa.getBoundState(state);
+            if (autoState != null) {
+                action.accept(autoState);
+            }
+        });
+    }
+
+    /**
+     * Retrieves the compiled machine of this matcher.
+     *
+     * @return the bit-parallel machine
+     */
+    public BitParallelNfa<I, O> getNfa() {
+        return nfa;
+    }
+
+    private long step0(long set, int symbol) {
+        if (nfa.searching) {
+            set |= 1L;
+        }
+        final long[] follow = nfa.follow;
+        long next = (set & nfa.shifting[0]) << 1;
+        set &= nfa.irregular[0];
+        while (set != 0) {
+            final int shift = Long.numberOfTrailingZeros(set) & ~7;
+            next |= follow[((shift >>> 3) << 8) + (int) ((set >>> shift) & 0xFF)];
+            set &= ~(0xFFL << shift);
+        }
+        return next & nfa.entered[symbol];
+    }
+
+    /**
+     * The single-word byte loop, with the machine tables hoisted into locals.
+     */
+    private int feed0(byte[] buffer, int offset, int length, boolean stopOnAccept) {
+        final long[] follow = nfa.follow;
+        final long[] entered = nfa.entered;
+        final long accepting = nfa.accepting[0];
+        final long shifting = nfa.shifting[0];
+        final long irregular = nfa.irregular[0];
+        final long restart = nfa.searching ? 1L : 0L;
+        long set = active0;
+        for (int i = 0; i < length; i++) {
+            set |= restart;
+            long next = (set & shifting) << 1;
+            long source = set & irregular;
+            while (source != 0) {
+                final int shift = Long.numberOfTrailingZeros(source) & ~7;
+                next |= follow[((shift >>> 3) << 8) + (int) ((source >>> shift) & 0xFF)];
+                source &= ~(0xFFL << shift);
+            }
+            set = next & entered[buffer[offset + i] & 0xFF];
+            if (stopOnAccept && (set & accepting) != 0) {
+                active0 = set;
+                return i + 1;
+            }
+        }
+        active0 = set;
+        return length;
+    }
+
+    private void checkByteSymbols() {
+        if (nfa.symbols != BitParallelNfa.CHUNK_VALUES) {
+            throw new IllegalStateException("Byte inputs require a machine of 256 symbols!");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.recorder;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed-size ring of the last N transitions of a machine, recorded into primitive arrays, so recording
+ * a transition is a few array stores with no allocation.
+ *
+ * <p>
+ * A recorded transition holds its timestamp, the identity hash codes of the from-state and the to-state and
+ * the hash code of the input; the ring holds no references to the states nor the inputs, use
+ * {@link System#identityHashCode(Object)} to match the recorded ids against the states of a machine.
+ * </p>
+ *
+ * <p>
+ * The ring is written by the transiting thread only, it's not meant to be shared between concurrently
+ * transiting managers.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class TransitionRing {
+
+    private static final Logger logger = Logger.getLogger("Automata4j-recorder");
+
+    private final long[] timestamps;
+    private final int[] fromStates;
+    private final int[] toStates;
+    private final int[] inputs;
+    private final int mask;
+    private long count;
+    private Throwable lastCause;
+    private RingDumpHandler dumpHandler = (machine, ring, cause) ->
+            logger.log(Level.SEVERE, cause, () -> "Transitions of " + machine + ":\n" + ring);
+
+    /**
+     * Instantiates a transition ring.
+     *
+     * @param capacity the number of the recent transitions to keep, rounded up to a power of 2 (positive)
+     */
+    public TransitionRing(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring capacity must be in the range [1, 2^30]!");
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        timestamps = new long[size];
+        fromStates = new int[size];
+        toStates = new int[size];
+        inputs = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Records a transition.
+     *
+     * @param fromState the state transiting from (nullable)
+     * @param toState the state transiting to (nullable)
+     * @param input the state input (nullable)
+     */
+    public void record(Object fromState, Object toState, Object input) {
+        final int index = (int) (count++ & mask);
+        timestamps[index] = System.nanoTime();
+        fromStates[index] = System.identityHashCode(fromState);
+        toStates[index] = System.identityHashCode(toState);
+        inputs[index] = input == null ? 0 : input.hashCode();
+    }
+
+    /**
+     * Dumps the recorded transitions to the dump handler on demand.
+     *
+     * @param machine the name of the machine owning this ring
+     */
+    public void dump(String machine) {
+        dumpHandler.onDump(machine, this, null);
+    }
+
+    /**
+     * Dumps the recorded transitions to the dump handler as a result of an exception, an exception
+     * is dumped once even if it's propagated through nested transitions.
+     *
+     * @param machine the name of the machine owning this ring
+     * @param cause the exception that has triggered the dump
+     */
+    public void dump(String machine, Throwable cause) {
+        if (cause == lastCause) {
+            return;
+        }
+        lastCause = cause;
+        dumpHandler.onDump(machine, this, cause);
+    }
+
+    /**
+     * Sets the dump handler of this ring, the default handler logs the dumps to the "Automata4j-recorder"
+     * {@link Logger} regardless of the {@link com.avrsandbox.fsa.util.AutomataLogger} switch.
+     *
+     * @param dumpHandler the dump handler (not null)
+     */
+    public void setDumpHandler(RingDumpHandler dumpHandler) {
+        if (dumpHandler == null) {
+            throw new IllegalArgumentException("Cannot accept null dump handlers!");
+        }
+        this.dumpHandler = dumpHandler;
+    }
+
+    /**
+     * Retrieves the number of the transitions recorded since the ring has been instantiated.
+     *
+     * @return the number of the recorded transitions
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the number of the transitions kept by this ring.
+     *
+     * @return the ring capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Clears the recorded transitions.
+     */
+    public void clear() {
+        count = 0;
+        lastCause = null;
+    }
+
+    /**
+     * Formats the kept transitions from the oldest to the most recent, the timestamps are relative
+     * to the most recent transition.
+     *
+     * @return a multi-line dump of the kept transitions
+     */
+    @Override
+    public String toString() {
+        final long kept = Math.min(count, getCapacity());
+        final StringBuilder dump = new StringBuilder();
+        if (kept == 0) {
+            return dump.append("<no transitions>").toString();
+        }
+        final long latest = timestamps[(int) ((count - 1) & mask)];
+        for (long i = count - kept; i < count; i++) {
+            final int index = (int) (i & mask);
+            dump.append('#').append(i)
+                .append(" t-").append(latest - timestamps[index]).append("ns ")
+                .append(Integer.toHexString(fromStates[index])).append(" -> ")
+                .append(Integer.toHexString(toStates[index]))
+                .append(" input=").append(Integer.toHexString(inputs[index]));
+            if (i + 1 < count) {
+                dump.append('\n');
+            }
+        }
+        return dump.toString();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.rule;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The compiled rules of a single present-state.
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class CompiledRules<I, O> {
+
+    /**
+     * The largest integer input indexed in an array.
+     */
+    private static final int MAX_INDEXED_INTEGER = 4096;
+
+    /**
+     * Denotes an input class that matches no class rule.
+     */
+    private static final Object NO_MATCH = new Object();
+
+    /* discrete inputs, either an array by the enum ordinal/integer value or a hash table */
+    private final Class<?> enumType;
+    private final AutoState[] indexedStates;
+    private final Map<Object, AutoState<I, O>> inputStates;
+
+    /* input classes and their resolved input classes */
+    private final Class<?>[] classes;
+    private final AutoState[] classStates;
+    private final Map<Class<?>, Object> resolvedClasses = new ConcurrentHashMap<>();
+
+    /* predicates in their evaluation order */
+    private final Predicate[] guards;
+    private final AutoState[] guardStates;
+
+    private final AutoState<I, O> fallback;
+
+    CompiledRules(TransitionRules.StateRules<I, O> stateRules) {
+        final List<Object> inputs = stateRules.inputs;
+        enumType = commonEnumType(inputs);
+        if (enumType != null) {
+            indexedStates = new AutoState[enumType.getEnumConstants().length];
+            inputStates = null;
+        } else if (areSmallIntegers(inputs)) {
+            indexedStates = new AutoState[inputs.stream().mapToInt(input -> (Integer) input).max().orElse(-1) + 1];
+            inputStates = null;
+        } else {
+            indexedStates = null;
+            inputStates = inputs.isEmpty() ? null : new HashMap<>();
+        }
+        /* the first declared rule of an input wins */
+        for (int i = 0; i < inputs.size(); i++) {
+            final Object input = inputs.get(i);
+            final AutoState<I, O> nextState = stateRules.inputStates.get(i);
+            if (inputStates != null) {
+                inputStates.putIfAbsent(input, nextState);
+            } else {
+                final int index = enumType != null ? ((Enum) input).ordinal() : (Integer) input;
+                if (indexedStates[index] == null) {
+                    indexedStates[index] = nextState;
+                }
+            }
+        }
+
+        classes = stateRules.classes.toArray(new Class<?>[0]);
+        classStates = stateRules.classStates.toArray(new AutoState[0]);
+
+        final TransitionRules.Guard[] sortedGuards = stateRules.guards.toArray(new TransitionRules.Guard[0]);
+        /* a stable sort keeps the declaration order of equally probable guards */
+        Arrays.sort(sortedGuards, Comparator.comparingDouble((TransitionRules.Guard guard) -> guard.probability).reversed());
+        guards = new Predicate[sortedGuards.length];
+        guardStates = new AutoState[sortedGuards.length];
+        for (int i = 0; i < sortedGuards.length; i++) {
+            guards[i] = sortedGuards[i].predicate;
+            guardStates[i] = sortedGuards[i].nextState;
+        }
+
+        fallback = stateRules.fallback;
+    }
+
+    AutoState<I, O> next(I input) {
+        AutoState<I, O> nextState = nextByInput(input);
+        if (nextState != null) {
+            return nextState;
+        }
+        if (classes.length > 0 && input != null) {
+            final Object resolved = resolvedClasses.computeIfAbsent(input.getClass(), this::resolve);
+            if (resolved != NO_MATCH) {
+                return (AutoState<I, O>) resolved;
+            }
+        }
+        for (int i = 0; i < guards.length; i++) {
+            if (guards[i].test(input)) {
+                return guardStates[i];
+            }
+        }
+        return fallback;
+    }
+
+    Set<AutoState<I, O>> getNextStates() {
+        final Set<AutoState> nextStates = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (indexedStates != null) {
+            for (AutoState nextState : indexedStates) {
+                if (nextState != null) {
+                    nextStates.add(nextState);
+                }
+            }
+        } else if (inputStates != null) {
+            nextStates.addAll(inputStates.values());
+        }
+        nextStates.addAll(Arrays.asList(classStates));
+        nextStates.addAll(Arrays.asList(guardStates));
+        if (fallback != null) {
+            nextStates.add(fallback);
+        }
+        return (Set) Collections.unmodifiableSet(nextStates);
+    }
+
+    private AutoState<I, O> nextByInput(I input) {
+        if (indexedStates != null) {
+            final int index;
+            if (enumType != null) {
+                if (!(input instanceof Enum) || ((Enum) input).getDeclaringClass() != enumType) {
+                    return null;
+                }
+                index = ((Enum) input).ordinal();
+            } else {
+                if (!(input instanceof Integer)) {
+                    return null;
+                }
+                index = (Integer) input;
+            }
+            return index >= 0 && index < indexedStates.length ? indexedStates[index] : null;
+        }
+        return inputStates == null ? null : inputStates.get(input);
+    }
+
+    private Object resolve(Class<?> inputClass) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i].isAssignableFrom(inputClass)) {
+                return classStates[i];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static Class<?> commonEnumType(List<Object> inputs) {
+        Class<?> enumType = null;
+        for (Object input : inputs) {
+            if (!(input instanceof Enum)) {
+                return null;
+            }
+            final Class<?> type = ((Enum) input).getDeclaringClass();
+            if (enumType != null && enumType != type) {
+                return null;
+            }
+            enumType = type;
+        }
+        return enumType;
+    }
+
+    private static boolean areSmallIntegers(List<Object> inputs) {
+        if (inputs.isEmpty()) {
+            return false;
+        }
+        for (Object input : inputs) {
+            if (!(input instanceof Integer) || (Integer) input < 0 || (Integer) input > MAX_INDEXED_INTEGER) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.rule;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable table of compiled {@link TransitionRules}, the table selects the next-state of a present-state
+ * and an input without scanning the rules linearly.
+ *
+ * <p>
+ * The rules of each present-state are indexed as follows: discrete inputs in an array indexed by the enum ordinal
+ * or the small integer input (or a hash table for other inputs), input classes in a hash table of the resolved
+ * input classes, and predicates in a vector sorted by their matching probabilities.
+ * </p>
+ *
+ * <p>
+ * The table is immutable and thread-safe, so it can be shared between machines.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public final class RuleTable<I, O> {
+
+    private final Map<AutoState<I, O>, CompiledRules<I, O>> rules = new IdentityHashMap<>();
+
+    /**
+     * Compiles the declared rules into a table.
+     *
+     * @param declaredRules the declared rules of the present-states
+     */
+    RuleTable(Collection<TransitionRules.StateRules<I, O>> declaredRules) {
+        for (TransitionRules.StateRules<I, O> stateRules : declaredRules) {
+            rules.put(stateRules.getPresentState(), new CompiledRules<>(stateRules));
+        }
+    }
+
+    /**
+     * Selects the next-state of a present-state and an input.
+     *
+     * @param presentState the present-state
+     * @param input the input of the present-state
+     * @return the next-state of the first matching rule, or null if no rule matches
+     */
+    public AutoState<I, O> next(AutoState<I, O> presentState, I input) {
+        final CompiledRules<I, O> stateRules = rules.get(presentState);
+        if (stateRules == null) {
+            return null;
+        }
+        return stateRules.next(input);
+    }
+
+    /**
+     * Tests whether a present-state has declared rules in this table.
+     *
+     * @param presentState the present-state to test
+     * @return true if the present-state has rules, false otherwise
+     */
+    public boolean hasRules(AutoState<I, O> presentState) {
+        return rules.containsKey(presentState);
+    }
+
+    /**
+     * Retrieves all the next-states that the rules of a present-state may select.
+     *
+     * @param presentState the present-state
+     * @return an unmodifiable set of the distinct next-states, empty if the present-state has no rules
+     */
+    public Set<AutoState<I, O>> getNextStates(AutoState<I, O> presentState) {
+        final CompiledRules<I, O> stateRules = rules.get(presentState);
+        if (stateRules == null) {
+            return Collections.emptySet();
+        }
+        return stateRules.getNextStates();
+    }
+
+    /**
+     * Retrieves the number of the present-states that have rules in this table.
+     *
+     * @return the number of the present-states
+     */
+    public int size() {
+        return rules.size();
+    }
+}
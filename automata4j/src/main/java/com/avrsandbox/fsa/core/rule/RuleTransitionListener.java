@@ -0,0 +1,110 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.rule;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+
+/**
+ * A {@link TransitionListener} that assigns the next-states of a {@link TransitionalManager} from a {@link RuleTable},
+ * using the present-state and its input.
+ *
+ * <p>
+ * If no rule matches, the next-state remains unchanged (the present-state), and the unhandled listener is dispatched (if any).
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class RuleTransitionListener<I, O> implements TransitionListener<I, O> {
+
+    /**
+     * The transitional manager object to assign the next state.
+     */
+    protected final TransitionalManager<I, O> transitionalManager;
+
+    /**
+     * The compiled rules to select the next state from.
+     */
+    protected final RuleTable<I, O> ruleTable;
+
+    /**
+     * A user-listener to execute when no rule matches.
+     */
+    protected final TransitionListener<I, O> unhandled;
+
+    /**
+     * Instantiates a transition listener that assigns the next-states from a rule table.
+     *
+     * @param transitionalManager the transitional manager object
+     * @param ruleTable the compiled rules to select the next states from
+     */
+    public RuleTransitionListener(TransitionalManager<I, O> transitionalManager, RuleTable<I, O> ruleTable) {
+        this(transitionalManager, ruleTable, null);
+    }
+
+    /**
+     * Instantiates a transition listener that assigns the next-states from a rule table.
+     *
+     * @param transitionalManager the transitional manager object
+     * @param ruleTable the compiled rules to select the next states from
+     * @param unhandled a listener to dispatch when no rule matches (nullable)
+     */
+    public RuleTransitionListener(TransitionalManager<I, O> transitionalManager,
+                                  RuleTable<I, O> ruleTable,
+                                  TransitionListener<I, O> unhandled) {
+        this.transitionalManager = transitionalManager;
+        this.ruleTable = ruleTable;
+        this.unhandled = unhandled;
+    }
+
+    @Override
+    public void onTransition(AutoState<I, O> presentState) {
+        final AutoState<I, O> nextState = ruleTable.next(presentState, presentState.getInput());
+        if (nextState != null) {
+            transitionalManager.assignNextState(nextState);
+        } else if (unhandled != null) {
+            unhandled.onTransition(presentState);
+        }
+    }
+
+    /**
+     * Retrieves the compiled rules of this listener.
+     *
+     * @return the rule table object
+     */
+    public RuleTable<I, O> getRuleTable() {
+        return ruleTable;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.rule;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A builder of declarative transition rules, e.g: {@code rules.from(idle).on("walk").to(walking).on(isRunning).to(running)},
+ * the rules are compiled into a {@link RuleTable} that selects the next-states of a machine.
+ *
+ * <p>
+ * A rule is guarded either by a discrete input (equality), an input class (instance-of) or a predicate over the input,
+ * the rules of a present-state are matched in this order: discrete inputs, input classes, predicates, and finally
+ * the fallback rule (if any).
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ * @see RuleTransitionListener for selecting the next-states of a {@link com.avrsandbox.fsa.core.TransitionalManager}
+ */
+public class TransitionRules<I, O> {
+
+    /**
+     * The declared rules by their present-states in the declaration order.
+     */
+    protected final Map<AutoState<I, O>, StateRules<I, O>> rules = new IdentityHashMap<>();
+
+    /**
+     * Instantiates an empty transition rules builder.
+     */
+    public TransitionRules() {
+    }
+
+    /**
+     * Starts or continues declaring the rules of a present-state.
+     *
+     * @param presentState the present-state of the rules (not null)
+     * @return the rules builder of the present-state
+     */
+    public StateRules<I, O> from(AutoState<I, O> presentState) {
+        if (presentState == null) {
+            throw new IllegalArgumentException("Cannot accept null present states!");
+        }
+        return rules.computeIfAbsent(presentState, state -> new StateRules<>(this, state));
+    }
+
+    /**
+     * Compiles the declared rules into an indexed rule table.
+     *
+     * @return a new immutable rule table
+     */
+    public RuleTable<I, O> compile() {
+        return new RuleTable<>(rules.values());
+    }
+
+    /**
+     * Declares the rules of a single present-state.
+     *
+     * @param <I> the state input type
+     * @param <O> the tracer object type
+     */
+    public static final class StateRules<I, O> {
+
+        private final TransitionRules<I, O> owner;
+        private final AutoState<I, O> presentState;
+        /* the discrete inputs and their next-states, in the declaration order */
+        final List<Object> inputs = new ArrayList<>();
+        final List<AutoState<I, O>> inputStates = new ArrayList<>();
+        final List<Class<?>> classes = new ArrayList<>();
+        final List<AutoState<I, O>> classStates = new ArrayList<>();
+        final List<Guard<I, O>> guards = new ArrayList<>();
+        AutoState<I, O> fallback;
+
+        private StateRules(TransitionRules<I, O> owner, AutoState<I, O> presentState) {
+            this.owner = owner;
+            this.presentState = presentState;
+        }
+
+        /**
+         * Guards a rule with a discrete input, the rule matches inputs equal to this input.
+         *
+         * @param input the discrete input (nullable)
+         * @return the rule target to assign
+         */
+        public Target<I, O> on(I input) {
+            return new Target<>(this, nextState -> {
+                inputs.add(input);
+                inputStates.add(nextState);
+            });
+        }
+
+        /**
+         * Guards a rule with an input class, the rule matches the inputs that are instances of this class.
+         *
+         * @param inputClass the input class (not null)
+         * @return the rule target to assign
+         */
+        public Target<I, O> on(Class<? extends I> inputClass) {
+            if (inputClass == null) {
+                throw new IllegalArgumentException("Cannot accept null input classes!");
+            }
+            return new Target<>(this, nextState -> {
+                classes.add(inputClass);
+                classStates.add(nextState);
+            });
+        }
+
+        /**
+         * Guards a rule with a predicate over the input.
+         *
+         * @param guard the input predicate (not null)
+         * @return the rule target to assign
+         */
+        public Target<I, O> on(Predicate<? super I> guard) {
+            return on(guard, 0d);
+        }
+
+        /**
+         * Guards a rule with a predicate over the input and an estimated probability of matching,
+         * the predicates are evaluated from the most probable to the least probable.
+         *
+         * <p>
+         * Predicates with equal probabilities are evaluated in the declaration order, and since
+         * the first matching predicate wins, overlapping predicates should be declared with equal probabilities.
+         * </p>
+         *
+         * @param guard the input predicate (not null)
+         * @param probability the estimated probability of matching, in the range [0, 1]
+         * @return the rule target to assign
+         */
+        public Target<I, O> on(Predicate<? super I> guard, double probability) {
+            if (guard == null) {
+                throw new IllegalArgumentException("Cannot accept null guards!");
+            }
+            return new Target<>(this, nextState -> guards.add(new Guard<>(guard, probability, nextState)));
+        }
+
+        /**
+         * Declares the fallback rule that matches any input not matched by the other rules.
+         *
+         * @return the rule target to assign
+         */
+        public Target<I, O> otherwise() {
+            return new Target<>(this, nextState -> fallback = nextState);
+        }
+
+        /**
+         * Starts or continues declaring the rules of another present-state.
+         *
+         * @param presentState the present-state of the rules (not null)
+         * @return the rules builder of the present-state
+         */
+        public StateRules<I, O> from(AutoState<I, O> presentState) {
+            return owner.from(presentState);
+        }
+
+        /**
+         * Compiles all the declared rules of the owner builder.
+         *
+         * @return a new immutable rule table
+         */
+        public RuleTable<I, O> compile() {
+            return owner.compile();
+        }
+
+        /**
+         * Retrieves the present-state of these rules.
+         *
+         * @return the present-state object
+         */
+        public AutoState<I, O> getPresentState() {
+            return presentState;
+        }
+    }
+
+    /**
+     * Completes a guarded rule by assigning its next-state.
+     *
+     * @param <I> the state input type
+     * @param <O> the tracer object type
+     */
+    public static final class Target<I, O> {
+
+        private final StateRules<I, O> rules;
+        private final Consumer<AutoState<I, O>> assigner;
+
+        private Target(StateRules<I, O> rules, Consumer<AutoState<I, O>> assigner) {
+            this.rules = rules;
+            this.assigner = assigner;
+        }
+
+        /**
+         * Assigns the next-state of the guarded rule.
+         *
+         * @param nextState the next-state to transit to when the rule matches (not null)
+         * @return the rules builder of the present-state to continue declaring its rules
+         */
+        public StateRules<I, O> to(AutoState<I, O> nextState) {
+            if (nextState == null) {
+                throw new IllegalArgumentException("Cannot accept null next states!");
+            }
+            assigner.accept(nextState);
+            return rules;
+        }
+    }
+
+    /**
+     * A predicate guard and its next-state.
+     */
+    static final class Guard<I, O> {
+        final Predicate<? super I> predicate;
+        final double probability;
+        final AutoState<I, O> nextState;
+
+        Guard(Predicate<? super I> predicate, double probability, AutoState<I, O> nextState) {
+            this.predicate = predicate;
+            this.probability = probability;
+            this.nextState = nextState;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.specialized;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.jfr.FlightEvents;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link TransitionalManager} that dispatches its states through a {@link StateDispatcher} specialized
+ * for its machine definition.
+ *
+ * <p>
+ * The machine definition is the set of states known to this manager at instantiation time, states that are
+ * not part of the definition can still be assigned, they are dispatched through the regular interface dispatching.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class SpecializedManager<I, O> extends TransitionalManager<I, O> {
+
+    /**
+     * The dispatcher specialized for the machine definition.
+     */
+    protected final StateDispatcher<I, O> dispatcher;
+
+    /**
+     * Instantiates a specialized transitional manager for a machine definition.
+     *
+     * @param states the states of the machine definition
+     */
+    @SafeVarargs
+    public SpecializedManager(AutoState<I, O>... states) {
+        /* copies the states, so the varargs array never escapes this constructor */
+        final List<AutoState<I, O>> definition = new ArrayList<>(states.length);
+        for (AutoState<I, O> autoState : states) {
+            definition.add(autoState);
+        }
+        this.dispatcher = TransitionSpecializer.specialize(definition);
+    }
+
+    /**
+     * Instantiates a specialized transitional manager for a machine definition.
+     *
+     * @param states the states of the machine definition
+     */
+    public SpecializedManager(Collection<? extends AutoState<I, O>> states) {
+        this.dispatcher = TransitionSpecializer.specialize(states);
+    }
+
+    /**
+     * Dispatches the state through the specialized dispatcher, or through the regular dispatching while
+     * the flight recorder state invoke events are enabled, as the specialized actions can't be timed apart.
+     */
+    @Override
+    protected void dispatch(AutoState<I, O> autoState, I input, TransitionListener<I, O> transitionListener) {
+        if (FlightEvents.isStateInvokeEnabled()) {
+            super.dispatch(autoState, input, transitionListener);
+            return;
+        }
+        dispatcher.dispatch(autoState, input, transitionListener);
+    }
+
+    /**
+     * Retrieves the dispatcher specialized for the machine definition.
+     *
+     * @return the state dispatcher object
+     */
+    public StateDispatcher<I, O> getDispatcher() {
+        return dispatcher;
+    }
+}
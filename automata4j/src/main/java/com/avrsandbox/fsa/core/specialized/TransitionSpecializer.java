@@ -0,0 +1,271 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.specialized;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Level;
+
+/**
+ * Specializes the state dispatching of a machine definition (a known set of {@link AutoState}s) at runtime.
+ *
+ * <p>
+ * The states actions are composed into a single constant {@link MethodHandle} per machine definition, the composed
+ * handle looks up the id of the dispatched state in an identity index of the definition, and switches on the id
+ * into the actions of that state, falling back to the regular interface dispatching for foreign states. The handle is then attached to a new hidden class defined from
+ * the {@link DispatcherTemplate}, so each machine gets its own monomorphic call sites.
+ * </p>
+ *
+ * <p>
+ * On runtimes that don't support hidden classes (e.g: Android), the specializer falls back to the regular
+ * interface dispatching.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class TransitionSpecializer {
+
+    private static final MethodHandle SET_INPUT;
+    private static final MethodHandle ON_START;
+    private static final MethodHandle INVOKE;
+    private static final MethodHandle ON_FINISH;
+    private static final MethodHandle NOTIFY;
+    private static final MethodHandle INDEX_OF;
+    private static final MethodHandle GENERIC_DISPATCH;
+    private static final byte[] TEMPLATE;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            SET_INPUT = lookup.findVirtual(AutoState.class, "setInput", MethodType.methodType(void.class, Object.class));
+            ON_START = lookup.findVirtual(AutoState.class, "onStart", MethodType.methodType(void.class));
+            INVOKE = lookup.findVirtual(AutoState.class, "invoke", MethodType.methodType(void.class, Object.class));
+            ON_FINISH = lookup.findVirtual(AutoState.class, "onFinish", MethodType.methodType(void.class));
+            NOTIFY = lookup.findStatic(TransitionSpecializer.class, "notify",
+                    MethodType.methodType(void.class, TransitionListener.class, AutoState.class));
+            INDEX_OF = lookup.findVirtual(StateIndex.class, "indexOf", MethodType.methodType(int.class, Object.class));
+            GENERIC_DISPATCH = lookup.findStatic(TransitionSpecializer.class, "dispatchGeneric",
+                    MethodType.methodType(void.class, AutoState.class, Object.class, TransitionListener.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        TEMPLATE = loadTemplate();
+    }
+
+    /**
+     * The regular interface dispatcher, used for foreign states and as a fallback.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final StateDispatcher GENERIC = TransitionSpecializer::dispatchGeneric;
+
+    private TransitionSpecializer() {
+    }
+
+    /**
+     * Specializes the dispatching of a machine definition.
+     *
+     * @param states the states of the machine definition
+     * @param <I> the state input type
+     * @param <O> the tracer object type
+     * @return a new dispatcher specialized for the given states, or the regular interface dispatcher
+     *         if specialization isn't supported on this runtime
+     */
+    @SuppressWarnings("unchecked")
+    public static <I, O> StateDispatcher<I, O> specialize(Collection<? extends AutoState<I, O>> states) {
+        if (TEMPLATE == null || states.isEmpty()) {
+            return (StateDispatcher<I, O>) GENERIC;
+        }
+        final MethodHandle dispatch = compose(states);
+        try {
+            final MethodHandles.Lookup hidden = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(TEMPLATE, dispatch, true);
+            return (StateDispatcher<I, O>) hidden.findConstructor(hidden.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+        } catch (Throwable throwable) {
+            AutomataLogger.log(Level.WARNING, TransitionSpecializer.class.getName(),
+                    "specialize(Collection)", "Falling back to the regular dispatching!", throwable);
+            return (StateDispatcher<I, O>) GENERIC;
+        }
+    }
+
+    /**
+     * Tests whether hidden-classes specialization is supported on this runtime.
+     *
+     * @return true if the dispatchers are specialized, false if they fall back to the regular dispatching
+     */
+    public static boolean isSupported() {
+        return TEMPLATE != null;
+    }
+
+    /**
+     * Composes the dispatch handle of type {@code (AutoState, Object, TransitionListener)void} for the given states.
+     *
+     * @param states the states of the machine definition
+     * @return a method handle dispatching the given states with bound receivers
+     */
+    private static MethodHandle compose(Collection<? extends AutoState<?, ?>> states) {
+        final StateIndex index = new StateIndex(states.toArray(new AutoState<?, ?>[0]));
+        final AutoState<?, ?>[] definition = index.getStates();
+        final MethodHandle[] cases = new MethodHandle[definition.length];
+        for (int i = 0; i < definition.length; i++) {
+            cases[i] = MethodHandles.dropArguments(composeState(definition[i]), 0, int.class, AutoState.class);
+        }
+        /* (int, AutoState, Object, TransitionListener)void, an id of -1 (a foreign state) falls to the default case */
+        final MethodHandle dispatch = MethodHandles.tableSwitch(
+                MethodHandles.dropArguments(GENERIC_DISPATCH, 0, int.class), cases);
+        final MethodHandle indexOf = INDEX_OF.bindTo(index)
+                .asType(MethodType.methodType(int.class, AutoState.class));
+        return MethodHandles.foldArguments(dispatch, indexOf);
+    }
+
+    /**
+     * Composes the actions of a single state into a handle of type {@code (Object, TransitionListener)void}.
+     *
+     * @param autoState the state to bind the actions to
+     * @return a method handle dispatching the state actions in order
+     */
+    private static MethodHandle composeState(AutoState<?, ?> autoState) {
+        final MethodHandle setInput = MethodHandles.dropArguments(SET_INPUT.bindTo(autoState), 1, TransitionListener.class);
+        final MethodHandle onStart = MethodHandles.dropArguments(ON_START.bindTo(autoState), 0, Object.class, TransitionListener.class);
+        final MethodHandle invoke = MethodHandles.dropArguments(INVOKE.bindTo(autoState), 1, TransitionListener.class);
+        final MethodHandle notify = MethodHandles.dropArguments(MethodHandles.insertArguments(NOTIFY, 1, autoState), 0, Object.class);
+        final MethodHandle onFinish = MethodHandles.dropArguments(ON_FINISH.bindTo(autoState), 0, Object.class, TransitionListener.class);
+
+        /* folds the actions from the last to the first, each combiner runs before its target */
+        MethodHandle actions = onFinish;
+        actions = MethodHandles.foldArguments(actions, notify);
+        actions = MethodHandles.foldArguments(actions, invoke);
+        actions = MethodHandles.foldArguments(actions, onStart);
+        return MethodHandles.foldArguments(actions, setInput);
+    }
+
+    private static byte[] loadTemplate() {
+        try (InputStream template = TransitionSpecializer.class.getResourceAsStream("DispatcherTemplate.class")) {
+            if (template == null) {
+                return null;
+            }
+            /* assert hidden classes are supported on this runtime */
+            MethodHandles.Lookup.class.getMethod("defineHiddenClassWithClassData",
+                    byte[].class, Object.class, boolean.class, MethodHandles.Lookup.ClassOption[].class);
+            return template.readAllBytes();
+        } catch (IOException | NoSuchMethodException | LinkageError e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void notify(TransitionListener transitionListener, AutoState autoState) {
+        if (transitionListener != null) {
+            transitionListener.onTransition(autoState);
+        }
+    }
+
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void dispatchGeneric(AutoState autoState, Object input, TransitionListener transitionListener) {
+        autoState.setInput(input);
+        autoState.onStart();
+        autoState.invoke(input);
+        if (transitionListener != null) {
+            transitionListener.onTransition(autoState);
+        }
+        autoState.onFinish();
+    }
+
+    /**
+     * An open-addressing identity index of the states of a machine definition, a state id is its position
+     * in the definition, the duplicate states keep their first id.
+     */
+    private static final class StateIndex {
+
+        private final AutoState<?, ?>[] states;
+        private final Object[] keys;
+        private final int[] ids;
+        private final int mask;
+
+        private StateIndex(AutoState<?, ?>[] definition) {
+            final int capacity = Integer.highestOneBit(Math.max(2, definition.length) * 2 - 1) << 1;
+            keys = new Object[capacity];
+            ids = new int[capacity];
+            mask = capacity - 1;
+            int size = 0;
+            for (AutoState<?, ?> autoState : definition) {
+                int slot = slotOf(autoState);
+                while (keys[slot] != null && keys[slot] != autoState) {
+                    slot = (slot + 1) & mask;
+                }
+                if (keys[slot] == null) {
+                    keys[slot] = autoState;
+                    ids[slot] = size;
+                    definition[size++] = autoState;
+                }
+            }
+            states = Arrays.copyOf(definition, size);
+        }
+
+        /**
+         * Retrieves the id of a state.
+         *
+         * @param autoState the dispatched state
+         * @return the state id, or -1 if the state is not part of the definition
+         */
+        private int indexOf(Object autoState) {
+            int slot = slotOf(autoState);
+            Object key;
+            while ((key = keys[slot]) != null) {
+                if (key == autoState) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private AutoState<?, ?>[] getStates() {
+            return states;
+        }
+
+        private int slotOf(Object autoState) {
+            /* spreads the identity hash bits, so neighbouring hashes don't cluster */
+            final int hash = System.identityHashCode(autoState) * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
@@ -82,6 +82,11 @@ public interface AutoState<I, O> {
 
     /**
      * Clones object either deeply or superficially.
+     *
+     * <p>
+     * Without a copier, the deep clone is a delegate proxy that shares this state's data, use
+     * {@link AutoState#clone(CloneType, StateCopier)} to obtain a real copy of the state.
+     * </p>
      * 
      * @param cloneType either superficial or deep
      * @return a clone of this object
@@ -95,42 +100,36 @@ public interface AutoState<I, O> {
         /* perform a deep clone */
         final AutoState<I, O> clone = new AutoState<>() {
             
-            public Object substrate = new Object();
+            private AutoState<I, O> substrate;
 
             @Override
-            @SuppressWarnings("unchecked")
             public void onStart() {
-                ((AutoState<I, O>) substrate).onStart();
+                substrate.onStart();
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public void invoke(I input) {
-                ((AutoState<I, O>) substrate).invoke(input);
+                substrate.invoke(input);
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public void onFinish() {
-                ((AutoState<I, O>) substrate).onFinish();
+                substrate.onFinish();
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public I getInput() {
-                return ((AutoState<I, O>) substrate).getInput();
+                return substrate.getInput();
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public void setInput(I input) {
-                ((AutoState<I, O>) substrate).setInput(input);
+                substrate.setInput(input);
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public O getStateTracer() {
-                return ((AutoState<I, O>) substrate).getStateTracer();
+                return substrate.getStateTracer();
             }
 
             @Override
@@ -142,6 +141,23 @@ public interface AutoState<I, O> {
 
         return clone;
     }
+
+    /**
+     * Clones object either deeply or superficially, the deep clone is a new state object
+     * created by a copier, with no delegation overhead.
+     *
+     * @param cloneType either superficial or deep
+     * @param copier the copier that creates the deep clone out of this state
+     * @return a clone of this object
+     * @see StatePrototype for copying and pooling states from a prototype
+     */
+    default AutoState<I, O> clone(final CloneType cloneType, final StateCopier<I, O> copier) {
+        /* sanity perform a superficial copy */
+        if (cloneType.getCode() == CloneType.SUPERFICIAL.getCode()) {
+            return this;
+        }
+        return copier.copy(this);
+    }
     
     /**
      * Internal use-only !
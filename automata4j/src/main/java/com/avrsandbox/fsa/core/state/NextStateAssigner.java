@@ -32,12 +32,20 @@
 package com.avrsandbox.fsa.core.state;
 
 import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.jfr.FlightEvents;
+import com.avrsandbox.fsa.core.listener.FlushableTransitionListener;
 import com.avrsandbox.fsa.core.transition.TransitionPath;
 
 /**
  * Assigns a next state {@link AutoState} when the
  * transition from a present state of a transition path finishes.
  *
+ * <p>
+ * When the transition path has no next state (e.g: a drained cascade), the next state of the manager is
+ * cleared, so the dead-end is reported by {@link TransitionalManager#tryTransit(TransitionListener)}, and
+ * a {@link FlushableTransitionListener} delegator is flushed, so the tail of its batch isn't held back.
+ * </p>
+ *
  * @param <I> the input type
  * @param <O> the tracer object (output) type
  * @author pavl_g
@@ -80,10 +88,23 @@ public class NextStateAssigner<I, O> implements TransitionListener<I, O> {
         assert (transitionalManager != null);
         assert (transitionPath != null);
 
-        transitionalManager.assignNextState(transitionPath.getNextState());
+        final Object event = FlightEvents.beginPathAssignment();
+        final AutoState<I, O> nextState = transitionPath.getNextState();
+        if (nextState != null) {
+            transitionalManager.assignNextState(nextState);
+        } else {
+            transitionalManager.getTransition().remove();
+        }
         /* incremental dispatch */
         if (delegator != null) {
             delegator.onTransition(presentState);
+            if (nextState == null && delegator instanceof FlushableTransitionListener) {
+                ((FlushableTransitionListener<I, O>) delegator).flush();
+            }
+        }
+        if (event != null) {
+            FlightEvents.commitPathAssignment(event, transitionalManager.getName(), presentState, nextState,
+                    transitionPath.getName());
         }
     }
 }
\ No newline at end of file
@@ -36,6 +36,13 @@ import com.avrsandbox.fsa.core.TransitionalManager;
 /**
  * Loaded into the stack and dispatched as a result of trying to call {@link TransitionalManager#transit(Object, TransitionListener)}
  * without assigning a next state or as a result of removing the state from the heap before transiting the system.
+ *
+ * <p>
+ * This exception is stackless, as dead-ends are a part of the control flow of some machines (e.g: cascades),
+ * use {@link TransitionalManager#tryTransit(Object, TransitionListener)} to avoid it altogether, and
+ * {@link TransitionalManager#setTransitionRing(com.avrsandbox.fsa.core.recorder.TransitionRing)} to trace the
+ * transitions that led to it.
+ * </p>
  * 
  * @author pavl_g
  */
@@ -47,4 +54,14 @@ public class NextStateNotFoundException extends NullPointerException {
     public NextStateNotFoundException() {
         super("Next-State of the transition is not found!");
     }
+
+    /**
+     * Skips filling in the stack trace, which dominates the cost of constructing this exception.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
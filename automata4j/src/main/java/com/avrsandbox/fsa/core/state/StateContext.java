@@ -0,0 +1,252 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.state;
+
+/**
+ * Represents the per-machine context of {@link StatelessState}s, the context holds the machine input,
+ * the tracer object and an application attachment on behalf of the shared stateless states.
+ *
+ * <p>
+ * The context adapts the current stateless state into an {@link AutoState}, so it can be assigned to
+ * any {@link com.avrsandbox.fsa.core.TransitionalManager}; a machine allocates a single context, regardless
+ * of the number of its states.
+ * </p>
+ *
+ * <p>
+ * A state entered using {@link StateContext#enter(StatelessState)} becomes the current state when the machine
+ * transits into the context, so the next state can be entered from a {@link TransitionListener} while the present
+ * state is still finishing. To queue the same context several times, e.g: into a cascade, use
+ * {@link StateContext#bind(StatelessState)} instead.
+ * </p>
+ *
+ * @param <I> type-generic for the state-input
+ * @param <O> type-generic for the state-tracer object
+ * @author pavl_g
+ */
+public class StateContext<I, O> implements AutoState<I, O> {
+
+    /**
+     * The current stateless state.
+     */
+    protected StatelessState<I, O> state;
+
+    /**
+     * The entered stateless state, bound as the current state on the next {@link StateContext#onStart()}.
+     */
+    protected StatelessState<I, O> pendingState;
+
+    /**
+     * The machine input.
+     */
+    protected I input;
+
+    /**
+     * The machine tracer object.
+     */
+    protected O tracer;
+
+    /**
+     * An application data object attached to this context.
+     */
+    protected Object attachment;
+
+    /**
+     * Instantiates an empty state context.
+     */
+    public StateContext() {
+    }
+
+    /**
+     * Instantiates a state context with an attachment.
+     *
+     * @param attachment an application data object
+     */
+    public StateContext(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Enters a stateless state, the state becomes the current state of this context when the machine
+     * transits into it, the current state is kept until then.
+     *
+     * @param state the stateless state to enter (not null)
+     * @return this context as an {@link AutoState} to assign to a machine
+     */
+    public StateContext<I, O> enter(StatelessState<I, O> state) {
+        if (state == null) {
+            throw new NextStateNotFoundException();
+        }
+        this.pendingState = state;
+        return this;
+    }
+
+    /**
+     * Creates an {@link AutoState} that enters a stateless state of this context when the machine transits into it,
+     * several bindings of the same context can be queued at once, e.g: into a cascade.
+     *
+     * @param state the stateless state to bind (not null)
+     * @return a new binding of the state to this context
+     */
+    public AutoState<I, O> bind(StatelessState<I, O> state) {
+        if (state == null) {
+            throw new NextStateNotFoundException();
+        }
+        return new Binding<>(this, state);
+    }
+
+    /**
+     * Retrieves the current stateless state of this context, a state entered using
+     * {@link StateContext#enter(StatelessState)} becomes current when the machine transits into it.
+     *
+     * @return the current stateless state, or null if no state is bound
+     */
+    public StatelessState<I, O> getState() {
+        return state;
+    }
+
+    @Override
+    public void onStart() {
+        if (pendingState != null) {
+            state = pendingState;
+            pendingState = null;
+        }
+        state.onStart(this);
+    }
+
+    @Override
+    public void invoke(I input) {
+        state.invoke(this, input);
+    }
+
+    @Override
+    public void onFinish() {
+        state.onFinish(this);
+    }
+
+    @Override
+    public I getInput() {
+        return input;
+    }
+
+    @Override
+    public void setInput(I input) {
+        this.input = input;
+    }
+
+    @Override
+    public O getStateTracer() {
+        return tracer;
+    }
+
+    /**
+     * Sets the tracer object of the machine, usually from within {@link StatelessState#invoke(StateContext, Object)}.
+     *
+     * @param tracer the new tracer object
+     */
+    public void setStateTracer(O tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Retrieves the application data object attached to this context.
+     *
+     * @param <T> the attachment type
+     * @return the attachment object, or null if nothing is attached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getAttachment() {
+        return (T) attachment;
+    }
+
+    /**
+     * Attaches an application data object to this context.
+     *
+     * @param attachment the attachment object
+     */
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    @Override
+    public String toString() {
+        return StateContext.class.getSimpleName() + "[" + state + "]";
+    }
+
+    /**
+     * Adapts a stateless state of a context into an {@link AutoState}.
+     */
+    private static final class Binding<I, O> implements AutoState<I, O> {
+
+        private final StateContext<I, O> context;
+        private final StatelessState<I, O> state;
+
+        private Binding(StateContext<I, O> context, StatelessState<I, O> state) {
+            this.context = context;
+            this.state = state;
+        }
+
+        @Override
+        public void onStart() {
+            context.enter(state).onStart();
+        }
+
+        @Override
+        public void invoke(I input) {
+            context.invoke(input);
+        }
+
+        @Override
+        public void onFinish() {
+            context.onFinish();
+        }
+
+        @Override
+        public I getInput() {
+            return context.getInput();
+        }
+
+        @Override
+        public void setInput(I input) {
+            context.setInput(input);
+        }
+
+        @Override
+        public O getStateTracer() {
+            return context.getStateTracer();
+        }
+
+        @Override
+        public String toString() {
+            return StateContext.class.getSimpleName() + "[" + state + "]";
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.state;
+
+/**
+ * A bounded object pool that recycles {@link AutoState} copies of a {@link StatePrototype}.
+ *
+ * <p>
+ * The pool is intended to be owned by a single machine (or a single thread of machines), so it's not thread-safe;
+ * released states are kept in a fixed-size array stack, and new copies are created from the prototype
+ * only when the pool is empty.
+ * </p>
+ *
+ * <p>
+ * Released states are recycled as they are, so states should reset their transient data
+ * on {@link AutoState#onFinish()}.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class StatePool<I, O> {
+
+    /**
+     * The prototype to create new copies from.
+     */
+    protected final StatePrototype<I, O> prototype;
+
+    /**
+     * The stack of the released states.
+     */
+    protected final AutoState<I, O>[] states;
+
+    /**
+     * The number of the released states in the stack.
+     */
+    protected int size;
+
+    /**
+     * Instantiates a state pool with a maximum capacity.
+     *
+     * @param prototype the prototype to create new copies from
+     * @param capacity the maximum number of states to keep in the pool
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public StatePool(StatePrototype<I, O> prototype, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cannot accept negative capacities!");
+        }
+        this.prototype = prototype;
+        this.states = new AutoState[capacity];
+    }
+
+    /**
+     * Fills the pool with new copies up to its maximum capacity.
+     */
+    public void prefill() {
+        while (size < states.length) {
+            states[size++] = prototype.newState();
+        }
+    }
+
+    /**
+     * Acquires a recycled state from the pool, or copies a new one if the pool is empty.
+     *
+     * @return a state object ready to be assigned
+     */
+    public AutoState<I, O> acquire() {
+        if (size == 0) {
+            return prototype.newState();
+        }
+        final AutoState<I, O> autoState = states[--size];
+        states[size] = null;
+        return autoState;
+    }
+
+    /**
+     * Releases a state back to the pool, the state is discarded if the pool is full.
+     *
+     * @param autoState the state to release
+     * @return true if the state is recycled, false if it's discarded
+     */
+    public boolean release(AutoState<I, O> autoState) {
+        if (autoState == null || size == states.length) {
+            return false;
+        }
+        states[size++] = autoState;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of the states available in the pool.
+     *
+     * @return the number of the recycled states
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the maximum number of states the pool can keep.
+     *
+     * @return the pool capacity
+     */
+    public int getCapacity() {
+        return states.length;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.state;
+
+/**
+ * Represents a prototype {@link AutoState} from which new states are copied using a {@link StateCopier}.
+ *
+ * <p>
+ * The prototype object itself is never assigned to a machine, it only serves as a template for the copies.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ * @see StatePool for recycling the copies
+ */
+public class StatePrototype<I, O> {
+
+    /**
+     * The template state.
+     */
+    protected final AutoState<I, O> prototype;
+
+    /**
+     * The copier that copies the template state.
+     */
+    protected final StateCopier<I, O> copier;
+
+    /**
+     * Instantiates a state prototype.
+     *
+     * @param prototype the template state (not null)
+     * @param copier the copier that copies the template state (not null)
+     */
+    public StatePrototype(AutoState<I, O> prototype, StateCopier<I, O> copier) {
+        if (prototype == null || copier == null) {
+            throw new IllegalArgumentException("Cannot accept null prototypes or copiers!");
+        }
+        this.prototype = prototype;
+        this.copier = copier;
+    }
+
+    /**
+     * Copies a new state out of the template state.
+     *
+     * @return a new state object
+     */
+    public AutoState<I, O> newState() {
+        return prototype.clone(CloneType.DEEP, copier);
+    }
+
+    /**
+     * Retrieves the template state.
+     *
+     * @return the template state object
+     */
+    public AutoState<I, O> getPrototype() {
+        return prototype;
+    }
+}
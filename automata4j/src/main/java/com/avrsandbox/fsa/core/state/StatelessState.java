@@ -0,0 +1,77 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.state;
+
+/**
+ * Represents a stateless (flyweight) automaton state.
+ *
+ * <p>
+ * A stateless state keeps no input nor tracer data, all the mutable data lives in a per-machine
+ * {@link StateContext} passed into its actions, so a single immutable graph of stateless states
+ * can be shared between any number of machines and threads.
+ * </p>
+ *
+ * <p>
+ * Stateless states are assigned to a machine through its context, e.g:
+ * {@code transitionalManager.assignNextState(context.enter(idleState))}.
+ * </p>
+ *
+ * @param <I> type-generic for the state-input
+ * @param <O> type-generic for the state-tracer object
+ * @author pavl_g
+ */
+public interface StatelessState<I, O> {
+
+    /**
+     * Dispatched as a start point when the machine owning the context transits into this state.
+     *
+     * @param context the per-machine context
+     */
+    default void onStart(StateContext<I, O> context) {
+    }
+
+    /**
+     * Dispatched as a main invocation point when the machine owning the context transits into this state.
+     *
+     * @param context the per-machine context
+     * @param input the input to the state
+     */
+    void invoke(StateContext<I, O> context, I input);
+
+    /**
+     * Dispatched after {@link StatelessState#invoke(StateContext, Object)}.
+     *
+     * @param context the per-machine context
+     */
+    default void onFinish(StateContext<I, O> context) {
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.table;
+
+/**
+ * Validates the byte-to-symbol mappings of the byte recognizers.
+ *
+ * @author pavl_g
+ */
+final class ByteSymbols {
+
+    /**
+     * The number of the byte values.
+     */
+    static final int BYTE_VALUES = 256;
+
+    private ByteSymbols() {
+    }
+
+    /**
+     * Creates the byte-to-symbol mapping of a table.
+     *
+     * @param byteSymbols the symbols of the 256 byte values, or null if the bytes are the table symbols
+     * @param symbols the number of the table symbols
+     * @return a private copy of the mapping, or the identity mapping
+     */
+    static int[] of(int[] byteSymbols, int symbols) {
+        if (byteSymbols == null) {
+            if (symbols != BYTE_VALUES) {
+                throw new IllegalArgumentException("Byte inputs require a table of 256 symbols, or a byte-to-symbol mapping!");
+            }
+            final int[] identity = new int[BYTE_VALUES];
+            for (int i = 0; i < identity.length; i++) {
+                identity[i] = i;
+            }
+            return identity;
+        }
+        if (byteSymbols.length != BYTE_VALUES) {
+            throw new IllegalArgumentException("Byte-to-symbol mapping must have 256 entries!");
+        }
+        for (int symbol : byteSymbols) {
+            if (symbol < 0 || symbol >= symbols) {
+                throw new IllegalArgumentException("Symbol " + symbol + " is out of range!");
+            }
+        }
+        return byteSymbols.clone();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.table;
+
+import com.avrsandbox.fsa.util.AutomataLogger;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+/**
+ * Drives a population of independent machines of the same {@link TransitionTable} in lockstep ticks,
+ * the current states of all the machines are stored in a single {@code int[]}, and a tick advances them together.
+ *
+ * <p>
+ * When the {@code jdk.incubator.vector} module is present (i.e: {@code --add-modules jdk.incubator.vector}),
+ * a tick gathers the next states using the Vector API, otherwise it falls back to a scalar loop; use
+ * {@link LockstepEngine#isVectorized()} to find out which one is active.
+ * </p>
+ *
+ * <p>
+ * An engine is not thread-safe, a tick shouldn't overlap with another tick nor with reading the states.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class LockstepEngine {
+
+    private static final String VECTOR_STEPPER = "com.avrsandbox.fsa.core.table.VectorStepper";
+
+    private final TransitionTable table;
+    private final int[] transitions;
+    private final int symbols;
+    private final int[] states;
+    private final int[] broadcast;
+    private final LockstepStepper stepper;
+
+    /**
+     * Instantiates a lockstep engine with all its machines at the initial state.
+     *
+     * @param table the transition table of the machines (not null)
+     * @param machines the number of machines (positive)
+     */
+    public LockstepEngine(TransitionTable table, int machines) {
+        if (table == null) {
+            throw new IllegalArgumentException("Cannot accept null transition tables!");
+        }
+        if (machines <= 0) {
+            throw new IllegalArgumentException("Machines count must be positive!");
+        }
+        this.table = table;
+        this.transitions = table.getTransitions();
+        this.symbols = table.getSymbolsCount();
+        this.states = new int[machines];
+        this.broadcast = new int[machines];
+        this.stepper = loadStepper();
+        reset();
+    }
+
+    /**
+     * Advances all the machines by a tick, each machine consumes its own input symbol.
+     *
+     * @param inputs the input symbols indexed by the machines, at least as long as the machines count
+     */
+    public void step(int[] inputs) {
+        if (inputs.length < states.length) {
+            throw new IllegalArgumentException("Inputs are fewer than the machines!");
+        }
+        for (int i = 0; i < states.length; i++) {
+            if (inputs[i] < 0 || inputs[i] >= symbols) {
+                throw new IllegalArgumentException("Symbol " + inputs[i] + " of machine " + i + " is out of range!");
+            }
+        }
+        stepper.step(transitions, symbols, states, inputs, 0, states.length);
+    }
+
+    /**
+     * Advances all the machines by a tick, all the machines consume the same input symbol.
+     *
+     * @param symbol the input symbol
+     */
+    public void step(int symbol) {
+        if (symbol < 0 || symbol >= symbols) {
+            throw new IllegalArgumentException("Symbol " + symbol + " is out of range!");
+        }
+        if (broadcast[0] != symbol) {
+            Arrays.fill(broadcast, symbol);
+        }
+        stepper.step(transitions, symbols, states, broadcast, 0, states.length);
+    }
+
+    /**
+     * Resets all the machines to the initial state.
+     */
+    public void reset() {
+        Arrays.fill(states, table.getInitialState());
+    }
+
+    /**
+     * Retrieves the current state of a machine.
+     *
+     * @param machine the machine index
+     * @return the current state
+     */
+    public int getState(int machine) {
+        return states[machine];
+    }
+
+    /**
+     * Copies the current states of all the machines.
+     *
+     * @param destination the destination array, at least as long as the machines count
+     */
+    public void getStates(int[] destination) {
+        System.arraycopy(states, 0, destination, 0, states.length);
+    }
+
+    /**
+     * Sets the current state of a machine.
+     *
+     * @param machine the machine index
+     * @param state the new state
+     */
+    public void setState(int machine, int state) {
+        if (state < 0 || state >= table.getStatesCount()) {
+            throw new IllegalArgumentException("State " + state + " is out of range!");
+        }
+        states[machine] = state;
+    }
+
+    /**
+     * Counts the machines at accepting states.
+     *
+     * @return the number of accepting machines
+     */
+    public int countAccepting() {
+        int count = 0;
+        for (int state : states) {
+            if (table.isAccepting(state)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of machines.
+     *
+     * @return the machines count
+     */
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * Retrieves the transition table of the machines.
+     *
+     * @return the transition table object
+     */
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Tests whether the ticks use the Vector API.
+     *
+     * @return true if the ticks are vectorized, false if they fall back to the scalar loop
+     */
+    public boolean isVectorized() {
+        return stepper != LockstepStepper.SCALAR;
+    }
+
+    private static LockstepStepper loadStepper() {
+        try {
+            return (LockstepStepper) Class.forName(VECTOR_STEPPER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            AutomataLogger.log(Level.INFO, LockstepEngine.class.getName(), "loadStepper()",
+                    "Vector API is not present, falling back to the scalar stepper!");
+            return LockstepStepper.SCALAR;
+        }
+    }
+}
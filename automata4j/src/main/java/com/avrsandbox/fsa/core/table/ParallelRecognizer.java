@@ -0,0 +1,355 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.table;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recognizes large byte inputs against a {@link TransitionTable} in parallel, using speculative chunked execution.
+ *
+ * <p>
+ * The input is split into chunks, the first chunk runs from the initial state, while every other chunk runs
+ * from all the possible start states at once, yielding a mapping from its start states to its end states;
+ * the runs that reach the same state are merged on the way, so most chunks converge into a single run after
+ * a few bytes. The chunks run on a {@link ForkJoinPool}, then their mappings are composed in order into the
+ * final state, like a parallel prefix.
+ * </p>
+ *
+ * <p>
+ * The input bytes are the table symbols, unless a byte-to-symbol mapping is supplied for tables of compressed
+ * alphabets. A recognizer is immutable and thread-safe.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class ParallelRecognizer {
+
+    /**
+     * The default minimum chunk size in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /* the number of bytes scanned between two merges of the converged runs */
+    private static final int CONVERGE_INTERVAL = 64;
+
+    /* the number of chunks per pool worker, to balance the uneven chunks */
+    private static final int CHUNKS_PER_WORKER = 8;
+
+    private final TransitionTable table;
+    private final int[] transitions;
+    private final int symbols;
+    private final int[] byteSymbols;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Instantiates a parallel recognizer of a table of 256 symbols (the bytes) on the common pool.
+     *
+     * @param table the transition table (not null)
+     */
+    public ParallelRecognizer(TransitionTable table) {
+        this(table, null, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Instantiates a parallel recognizer.
+     *
+     * @param table the transition table (not null)
+     * @param byteSymbols the symbols of the 256 byte values, or null if the bytes are the table symbols
+     * @param pool the pool to run the chunks on (not null)
+     * @param chunkSize the minimum chunk size in bytes (positive)
+     */
+    public ParallelRecognizer(TransitionTable table, int[] byteSymbols, ForkJoinPool pool, int chunkSize) {
+        if (table == null) {
+            throw new IllegalArgumentException("Cannot accept null transition tables!");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Cannot accept null pools!");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive!");
+        }
+        this.table = table;
+        this.transitions = table.getTransitions();
+        this.symbols = table.getSymbolsCount();
+        this.byteSymbols = ByteSymbols.of(byteSymbols, symbols);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Runs the table over a byte array from the initial state.
+     *
+     * @param input the input bytes (not null)
+     * @return the final state
+     */
+    public int run(byte[] input) {
+        return run(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * Runs the table over the remaining bytes of a buffer from the initial state, the buffer position is unchanged.
+     *
+     * @param input the input bytes (not null)
+     * @return the final state
+     */
+    public int run(ByteBuffer input) {
+        final ByteBuffer buffer = input.slice();
+        return run(buffer.remaining(), (position, length) -> buffer.slice((int) position, length));
+    }
+
+    /**
+     * Runs the table over a file from the initial state, the chunks of the file are memory-mapped.
+     *
+     * @param file the input file (not null)
+     * @return the final state
+     * @throws IOException if the file cannot be read
+     */
+    public int run(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return run(channel);
+        }
+    }
+
+    /**
+     * Runs the table over a file channel from the initial state, the chunks of the channel are memory-mapped.
+     *
+     * @param channel a readable file channel (not null)
+     * @return the final state
+     * @throws IOException if the channel cannot be read
+     */
+    public int run(FileChannel channel) throws IOException {
+        try {
+            return run(channel.size(), (position, length) -> {
+                try {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Tests whether a byte array is accepted by the table.
+     *
+     * @param input the input bytes (not null)
+     * @return true if the final state is accepting, false otherwise
+     */
+    public boolean matches(byte[] input) {
+        return table.isAccepting(run(input));
+    }
+
+    /**
+     * Tests whether the remaining bytes of a buffer are accepted by the table.
+     *
+     * @param input the input bytes (not null)
+     * @return true if the final state is accepting, false otherwise
+     */
+    public boolean matches(ByteBuffer input) {
+        return table.isAccepting(run(input));
+    }
+
+    /**
+     * Tests whether a file is accepted by the table.
+     *
+     * @param file the input file (not null)
+     * @return true if the final state is accepting, false otherwise
+     * @throws IOException if the file cannot be read
+     */
+    public boolean matches(Path file) throws IOException {
+        return table.isAccepting(run(file));
+    }
+
+    /**
+     * Retrieves the transition table of this recognizer.
+     *
+     * @return the transition table
+     */
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    private int run(long length, Region region) {
+        final long size = Math.max(chunkSize, ceilDiv(length, (long) pool.getParallelism() * CHUNKS_PER_WORKER));
+        final int chunk = (int) Math.min(size, Integer.MAX_VALUE);
+        final int chunks = (int) ceilDiv(length, chunk);
+        if (chunks <= 1) {
+            return length == 0 ? table.getInitialState() : scan(region.map(0, (int) length), table.getInitialState());
+        }
+        final int[][] mappings = new int[chunks][];
+        pool.invoke(new ChunkTask(region, length, chunk, mappings, 0, chunks));
+
+        /* composes the chunks mappings, the first chunk has a single run from the initial state */
+        int state = mappings[0][0];
+        for (int i = 1; i < chunks; i++) {
+            state = mappings[i][state];
+        }
+        return state;
+    }
+
+    /**
+     * Scans a chunk from a single known state.
+     */
+    private int scan(ByteBuffer chunk, int state) {
+        final int sink = table.getSinkState();
+        if (chunk.hasArray()) {
+            final byte[] array = chunk.array();
+            final int end = chunk.arrayOffset() + chunk.limit();
+            for (int i = chunk.arrayOffset() + chunk.position(); i < end && state != sink; i++) {
+                state = transitions[state * symbols + byteSymbols[array[i] & 0xFF]];
+            }
+        } else {
+            final int end = chunk.limit();
+            for (int i = chunk.position(); i < end && state != sink; i++) {
+                state = transitions[state * symbols + byteSymbols[chunk.get(i) & 0xFF]];
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Scans a chunk from all the states, merging the runs that reach the same state.
+     *
+     * @return the end states indexed by the start states
+     */
+    private int[] scanAll(ByteBuffer chunk) {
+        final int states = table.getStatesCount();
+        final int[] runOf = new int[states];
+        final int[] current = new int[states];
+        final int[] remap = new int[states];
+        final int[] slots = new int[states];
+        Arrays.fill(slots, -1);
+        for (int state = 0; state < states; state++) {
+            runOf[state] = state;
+            current[state] = state;
+        }
+        int runs = states;
+        int position = chunk.position();
+        final int limit = chunk.limit();
+        while (runs > 1 && position < limit) {
+            final int end = Math.min(limit, position + CONVERGE_INTERVAL);
+            for (; position < end; position++) {
+                final int row = byteSymbols[chunk.get(position) & 0xFF];
+                for (int run = 0; run < runs; run++) {
+                    current[run] = transitions[current[run] * symbols + row];
+                }
+            }
+
+            /* merges the runs that reached the same state */
+            int merged = 0;
+            for (int run = 0; run < runs; run++) {
+                final int state = current[run];
+                if (slots[state] < 0) {
+                    slots[state] = merged;
+                    current[merged++] = state;
+                }
+                remap[run] = slots[state];
+            }
+            for (int run = 0; run < merged; run++) {
+                slots[current[run]] = -1;
+            }
+            if (merged < runs) {
+                for (int state = 0; state < states; state++) {
+                    runOf[state] = remap[runOf[state]];
+                }
+                runs = merged;
+            }
+        }
+        if (runs == 1 && position < limit) {
+            current[0] = scan(chunk.position(position), current[0]);
+        }
+        for (int state = 0; state < states; state++) {
+            runOf[state] = current[runOf[state]];
+        }
+        return runOf;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Provides the bytes of an input region.
+     */
+    @FunctionalInterface
+    private interface Region {
+        ByteBuffer map(long position, int length);
+    }
+
+    /**
+     * Splits a range of chunks until a single chunk is left, then scans it.
+     */
+    private final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Region region;
+        private final long length;
+        private final int chunk;
+        private final int[][] mappings;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Region region, long length, int chunk, int[][] mappings, int from, int to) {
+            this.region = region;
+            this.length = length;
+            this.chunk = chunk;
+            this.mappings = mappings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(region, length, chunk, mappings, from, middle),
+                          new ChunkTask(region, length, chunk, mappings, middle, to));
+                return;
+            }
+            final long position = (long) from * chunk;
+            final ByteBuffer bytes = region.map(position, (int) Math.min(chunk, length - position));
+            mappings[from] = from == 0 ? new int[] {scan(bytes, table.getInitialState())} : scanAll(bytes);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.table;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * Recognizes a stream of bytes or characters against a {@link TransitionTable}, the input is fed in arbitrary
+ * chunks and the present state carries over from a chunk to the next one, so a message split across several
+ * reads is neither buffered nor re-scanned.
+ *
+ * <p>
+ * The input bytes are the table symbols, unless a byte-to-symbol mapping is supplied for tables of compressed
+ * alphabets; characters are mapped as their Latin-1 bytes, the characters beyond Latin-1 are undefined
+ * transitions, so they lead to the sink state.
+ * </p>
+ *
+ * <p>
+ * Use {@link StreamingRecognizer#feedUntilAccepted(byte[], int, int)} to find the end of a frame inside a chunk,
+ * the remaining bytes of the chunk belong to the next frame. A recognizer is not thread-safe.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class StreamingRecognizer {
+
+    private final TransitionTable table;
+    private final int[] transitions;
+    private final int symbols;
+    private final int[] byteSymbols;
+    private final int sink;
+    private int state;
+    private long consumed;
+
+    /**
+     * Instantiates a streaming recognizer of a table of 256 symbols (the bytes) at the initial state.
+     *
+     * @param table the transition table (not null)
+     */
+    public StreamingRecognizer(TransitionTable table) {
+        this(table, null);
+    }
+
+    /**
+     * Instantiates a streaming recognizer at the initial state.
+     *
+     * @param table the transition table (not null)
+     * @param byteSymbols the symbols of the 256 byte values, or null if the bytes are the table symbols
+     */
+    public StreamingRecognizer(TransitionTable table, int[] byteSymbols) {
+        if (table == null) {
+            throw new IllegalArgumentException("Cannot accept null transition tables!");
+        }
+        this.table = table;
+        this.transitions = table.getTransitions();
+        this.symbols = table.getSymbolsCount();
+        this.byteSymbols = ByteSymbols.of(byteSymbols, symbols);
+        this.sink = table.getSinkState();
+        reset();
+    }
+
+    /**
+     * Feeds a chunk of bytes.
+     *
+     * @param buffer the input bytes (not null)
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     */
+    public void feed(byte[] buffer, int offset, int length) {
+        checkRange(buffer.length, offset, length);
+        int state = this.state;
+        final int end = offset + length;
+        for (int i = offset; i < end && state != sink; i++) {
+            state = transitions[state * symbols + byteSymbols[buffer[i] & 0xFF]];
+        }
+        this.state = state;
+        consumed += length;
+    }
+
+    /**
+     * Feeds a chunk of bytes.
+     *
+     * @param buffer the input bytes (not null)
+     */
+    public void feed(byte[] buffer) {
+        feed(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Feeds the remaining bytes of a buffer, the buffer position is advanced to its limit.
+     *
+     * @param buffer the input bytes (not null)
+     */
+    public void feed(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            feed(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return;
+        }
+        int state = this.state;
+        final int length = buffer.remaining();
+        for (int i = buffer.position(); i < buffer.limit() && state != sink; i++) {
+            state = transitions[state * symbols + byteSymbols[buffer.get(i) & 0xFF]];
+        }
+        this.state = state;
+        consumed += length;
+        buffer.position(buffer.limit());
+    }
+
+    /**
+     * Feeds the remaining characters of a buffer, the buffer position is advanced to its limit.
+     *
+     * @param buffer the input characters (not null)
+     */
+    public void feed(CharBuffer buffer) {
+        int state = this.state;
+        final int length = buffer.remaining();
+        for (int i = buffer.position(); i < buffer.limit() && state != sink; i++) {
+            state = nextOf(state, buffer.get(i));
+        }
+        this.state = state;
+        consumed += length;
+        buffer.position(buffer.limit());
+    }
+
+    /**
+     * Feeds a chunk of bytes up to the first byte that leads to an accepting state.
+     *
+     * @param buffer the input bytes (not null)
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return the number of the consumed bytes, including the accepting byte
+     */
+    public int feedUntilAccepted(byte[] buffer, int offset, int length) {
+        checkRange(buffer.length, offset, length);
+        int state = this.state;
+        int i = 0;
+        while (i < length && state != sink) {
+            state = transitions[state * symbols + byteSymbols[buffer[offset + i++] & 0xFF]];
+            if (table.isAccepting(state)) {
+                break;
+            }
+        }
+        if (state == sink) {
+            i = length;
+        }
+        this.state = state;
+        consumed += i;
+        return i;
+    }
+
+    /**
+     * Feeds the remaining bytes of a buffer up to the first byte that leads to an accepting state,
+     * the buffer position is advanced by the consumed bytes.
+     *
+     * @param buffer the input bytes (not null)
+     * @return the number of the consumed bytes, including the accepting byte
+     */
+    public int feedUntilAccepted(ByteBuffer buffer) {
+        final int position = buffer.position();
+        int i;
+        if (buffer.hasArray()) {
+            i = feedUntilAccepted(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+        } else {
+            final int length = buffer.remaining();
+            int state = this.state;
+            i = 0;
+            while (i < length && state != sink) {
+                state = transitions[state * symbols + byteSymbols[buffer.get(position + i++) & 0xFF]];
+                if (table.isAccepting(state)) {
+                    break;
+                }
+            }
+            if (state == sink) {
+                i = length;
+            }
+            this.state = state;
+            consumed += i;
+        }
+        buffer.position(position + i);
+        return i;
+    }
+
+    /**
+     * Resets the recognizer to the initial state.
+     */
+    public void reset() {
+        state = table.getInitialState();
+        consumed = 0;
+    }
+
+    /**
+     * Retrieves the present state.
+     *
+     * @return the present state
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Tests whether the present state is an accepting state.
+     *
+     * @return true if the input so far is accepted, false otherwise
+     */
+    public boolean isAccepted() {
+        return table.isAccepting(state);
+    }
+
+    /**
+     * Tests whether the present state is the sink state, a dead recognizer never accepts again until it's reset.
+     *
+     * @return true if the recognizer is at the sink state, false otherwise
+     */
+    public boolean isDead() {
+        return state == sink;
+    }
+
+    /**
+     * Retrieves the number of the consumed bytes or characters since the last reset.
+     *
+     * @return the number of the consumed inputs
+     */
+    public long getConsumed() {
+        return consumed;
+    }
+
+    /**
+     * Retrieves the transition table of this recognizer.
+     *
+     * @return the transition table
+     */
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    private int nextOf(int state, char character) {
+        if (character < ByteSymbols.BYTE_VALUES) {
+            return transitions[state * symbols + byteSymbols[character]];
+        }
+        if (sink == TransitionTable.NO_SINK) {
+            throw new IllegalArgumentException("Character " + (int) character + " is out of range, and no sink state is set!");
+        }
+        return sink;
+    }
+
+    private static void checkRange(int size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") is out of bounds of " + size + "!");
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.table;
+
+import java.util.Arrays;
+
+/**
+ * A compiled, immutable deterministic machine over integer states and integer input symbols, the transitions
+ * are stored in a dense row-major table, so a transition is a single array load.
+ *
+ * <p>
+ * A table is built using {@link TransitionTable.Builder}, the undefined transitions lead to the sink state;
+ * the sink state is a dead state that transits into itself on all symbols.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public final class TransitionTable {
+
+    /**
+     * Denotes a table without a sink state.
+     */
+    public static final int NO_SINK = -1;
+
+    private final int states;
+    private final int symbols;
+    private final int initialState;
+    private final int sinkState;
+    private final int[] next;
+    private final boolean[] accepting;
+
+    private TransitionTable(int states, int symbols, int initialState, int sinkState, int[] next, boolean[] accepting) {
+        this.states = states;
+        this.symbols = symbols;
+        this.initialState = initialState;
+        this.sinkState = sinkState;
+        this.next = next;
+        this.accepting = accepting;
+    }
+
+    /**
+     * Retrieves the next state of a transition.
+     *
+     * @param state the present state
+     * @param symbol the input symbol in the range [0, symbols)
+     * @return the next state
+     */
+    public int next(int state, int symbol) {
+        return next[state * symbols + symbol];
+    }
+
+    /**
+     * Tests whether a state is an accepting state.
+     *
+     * @param state the state to test
+     * @return true if the state is accepting, false otherwise
+     */
+    public boolean isAccepting(int state) {
+        return accepting[state];
+    }
+
+    /**
+     * Tests whether a state is the sink state.
+     *
+     * @param state the state to test
+     * @return true if the state is the sink state, false otherwise
+     */
+    public boolean isSink(int state) {
+        return state == sinkState;
+    }
+
+    /**
+     * Retrieves the number of states.
+     *
+     * @return the number of states
+     */
+    public int getStatesCount() {
+        return states;
+    }
+
+    /**
+     * Retrieves the number of input symbols.
+     *
+     * @return the number of input symbols
+     */
+    public int getSymbolsCount() {
+        return symbols;
+    }
+
+    /**
+     * Retrieves the initial state.
+     *
+     * @return the initial state
+     */
+    public int getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Retrieves the sink state.
+     *
+     * @return the sink state, or {@link TransitionTable#NO_SINK} if all the transitions are defined
+     */
+    public int getSinkState() {
+        return sinkState;
+    }
+
+    /**
+     * Retrieves the dense row-major transitions, the next state of a transition is at index
+     * {@code state * symbols + symbol}; the array is shared, it must not be modified.
+     *
+     * @return the dense transitions array
+     */
+    int[] getTransitions() {
+        return next;
+    }
+
+    /**
+     * Builds a {@link TransitionTable}.
+     */
+    public static final class Builder {
+
+        private static final int UNDEFINED = -1;
+
+        private final int states;
+        private final int symbols;
+        private final int[] next;
+        private final boolean[] accepting;
+        private int initialState;
+        private int sinkState = NO_SINK;
+
+        /**
+         * Instantiates a table builder, all the transitions are undefined and the initial state is zero.
+         *
+         * @param states the number of states (positive)
+         * @param symbols the number of input symbols (positive)
+         */
+        public Builder(int states, int symbols) {
+            if (states <= 0 || symbols <= 0) {
+                throw new IllegalArgumentException("States and symbols counts must be positive!");
+            }
+            if ((long) states * symbols > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Transition table is too large!");
+            }
+            this.states = states;
+            this.symbols = symbols;
+            this.next = new int[states * symbols];
+            this.accepting = new boolean[states];
+            Arrays.fill(next, UNDEFINED);
+        }
+
+        /**
+         * Defines a transition.
+         *
+         * @param state the present state
+         * @param symbol the input symbol
+         * @param nextState the next state
+         * @return this builder for chained invocations
+         */
+        public Builder transition(int state, int symbol, int nextState) {
+            checkState(state);
+            checkState(nextState);
+            if (symbol < 0 || symbol >= symbols) {
+                throw new IllegalArgumentException("Symbol " + symbol + " is out of range!");
+            }
+            next[state * symbols + symbol] = nextState;
+            return this;
+        }
+
+        /**
+         * Marks a state as an accepting state.
+         *
+         * @param state the accepting state
+         * @return this builder for chained invocations
+         */
+        public Builder accepting(int state) {
+            checkState(state);
+            accepting[state] = true;
+            return this;
+        }
+
+        /**
+         * Sets the initial state.
+         *
+         * @param state the initial state
+         * @return this builder for chained invocations
+         */
+        public Builder initial(int state) {
+            checkState(state);
+            initialState = state;
+            return this;
+        }
+
+        /**
+         * Sets the sink state, the undefined transitions and all the transitions of the sink state lead to it.
+         *
+         * @param state the sink state
+         * @return this builder for chained invocations
+         */
+        public Builder sink(int state) {
+            checkState(state);
+            sinkState = state;
+            return this;
+        }
+
+        /**
+         * Builds the transition table.
+         *
+         * @return a new transition table
+         * @throws IllegalStateException if some transitions are undefined and no sink state is set
+         */
+        public TransitionTable build() {
+            final int[] next = this.next.clone();
+            if (sinkState != NO_SINK) {
+                Arrays.fill(next, sinkState * symbols, (sinkState + 1) * symbols, sinkState);
+            }
+            for (int i = 0; i < next.length; i++) {
+                if (next[i] != UNDEFINED) {
+                    continue;
+                }
+                if (sinkState == NO_SINK) {
+                    throw new IllegalStateException("Transition of state " + (i / symbols) + " on symbol "
+                            + (i % symbols) + " is undefined, and no sink state is set!");
+                }
+                next[i] = sinkState;
+            }
+            return new TransitionTable(states, symbols, initialState, sinkState, next, accepting.clone());
+        }
+
+        private void checkState(int state) {
+            if (state < 0 || state >= states) {
+                throw new IllegalArgumentException("State " + state + " is out of range!");
+            }
+        }
+    }
+}
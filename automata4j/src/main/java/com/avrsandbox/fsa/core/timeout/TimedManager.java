@@ -0,0 +1,226 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.timeout;
+
+import com.avrsandbox.fsa.core.TransitionalManager;
+import com.avrsandbox.fsa.core.state.AutoState;
+import com.avrsandbox.fsa.core.state.NextStateNotFoundException;
+import com.avrsandbox.fsa.core.state.TransitionListener;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TransitionalManager} that supports state-level timeouts, a timeout transits the machine into a target
+ * state if no input arrives to the awaiting state within a duration.
+ *
+ * <p>
+ * The awaiting state is the assigned next-state, its timeout is armed when it's assigned, or after a transition
+ * that doesn't assign a new state, and it's cancelled once an input arrives; a single {@link Timeout} is reused
+ * per manager, so arming and cancelling a timeout doesn't allocate.
+ * </p>
+ *
+ * <p>
+ * The expired timeouts transit on the {@link TimingWheel} thread, the transitions of this manager are serialized
+ * on the manager monitor.
+ * </p>
+ *
+ * @param <I> the state input type
+ * @param <O> the tracer object type
+ * @author pavl_g
+ */
+public class TimedManager<I, O> extends TransitionalManager<I, O> {
+
+    /**
+     * The timing wheel scheduling the timeouts of this manager.
+     */
+    protected final TimingWheel wheel;
+
+    /**
+     * The state timeouts keyed by the awaiting states.
+     */
+    protected final Map<AutoState<I, O>, StateTimeout<I, O>> timeouts = new IdentityHashMap<>();
+
+    /**
+     * The reusable timeout of this manager.
+     */
+    protected final Timeout timeout = new Timeout(this::expire);
+
+    /**
+     * The transition listener fired after transiting into a timeout target state.
+     */
+    protected TransitionListener<I, O> timeoutListener;
+
+    private StateTimeout<I, O> armed;
+
+    /**
+     * Instantiates a timed manager on the shared timing wheel.
+     */
+    public TimedManager() {
+        this(TimingWheel.getShared());
+    }
+
+    /**
+     * Instantiates a timed manager on a timing wheel.
+     *
+     * @param wheel the timing wheel to schedule the timeouts on (not null)
+     */
+    public TimedManager(TimingWheel wheel) {
+        if (wheel == null) {
+            throw new IllegalArgumentException("Cannot accept null timing wheels!");
+        }
+        this.wheel = wheel;
+    }
+
+    /**
+     * Sets a timeout on a state, the machine transits into the target state if no input arrives to
+     * the awaiting state within the duration.
+     *
+     * @param autoState the awaiting state
+     * @param duration the timeout duration (positive)
+     * @param unit the unit of the timeout duration
+     * @param target the state to transit to on timeout
+     */
+    public synchronized void setTimeout(AutoState<I, O> autoState, long duration, TimeUnit unit, AutoState<I, O> target) {
+        if (autoState == null || target == null) {
+            throw new IllegalArgumentException("Cannot accept null states!");
+        }
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Timeout duration must be positive!");
+        }
+        timeouts.put(autoState, new StateTimeout<>(unit.toNanos(duration), target));
+    }
+
+    /**
+     * Removes the timeout of a state, an armed timeout of this state is cancelled.
+     *
+     * @param autoState the awaiting state
+     */
+    public synchronized void removeTimeout(AutoState<I, O> autoState) {
+        final StateTimeout<I, O> stateTimeout = timeouts.remove(autoState);
+        if (stateTimeout != null && stateTimeout == armed) {
+            disarm();
+        }
+    }
+
+    /**
+     * Sets the transition listener fired after transiting into a timeout target state.
+     *
+     * @param timeoutListener the transition listener (nullable)
+     */
+    public synchronized void setTimeoutListener(TransitionListener<I, O> timeoutListener) {
+        this.timeoutListener = timeoutListener;
+    }
+
+    @Override
+    public synchronized void assignNextState(AutoState<I, O> autoState) {
+        super.assignNextState(autoState);
+        disarm();
+        arm(autoState);
+    }
+
+    @Override
+    public synchronized void transit(I input, TransitionListener<I, O> transitionListener) throws NextStateNotFoundException {
+        disarm();
+        super.transit(input, transitionListener);
+        if (armed == null) {
+            arm(transition.getNextState());
+        }
+    }
+
+    /**
+     * Tests whether a timeout is armed for the awaiting state.
+     *
+     * @return true if a timeout is armed, false otherwise
+     */
+    public boolean isTimeoutArmed() {
+        return timeout.isArmed();
+    }
+
+    /**
+     * Retrieves the timing wheel scheduling the timeouts of this manager.
+     *
+     * @return the timing wheel object
+     */
+    public TimingWheel getWheel() {
+        return wheel;
+    }
+
+    private void arm(AutoState<I, O> autoState) {
+        if (autoState == null || timeouts.isEmpty()) {
+            return;
+        }
+        final StateTimeout<I, O> stateTimeout = timeouts.get(autoState);
+        if (stateTimeout == null) {
+            return;
+        }
+        armed = stateTimeout;
+        wheel.schedule(timeout, stateTimeout.duration, TimeUnit.NANOSECONDS);
+    }
+
+    private void disarm() {
+        if (armed != null) {
+            armed = null;
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Transits into the target state of the armed timeout, runs on the timing wheel thread.
+     */
+    private synchronized void expire() {
+        /* an input has arrived or the timeout has been re-armed after the wheel has expired it */
+        if (!timeout.consumeExpiration() || armed == null) {
+            return;
+        }
+        final AutoState<I, O> target = armed.target;
+        armed = null;
+        super.assignNextState(target);
+        transit(target.getInput(), timeoutListener);
+    }
+
+    /**
+     * A timeout entry, a duration and a target state.
+     *
+     * @param <I> the state input type
+     * @param <O> the tracer object type
+     */
+    protected static final class StateTimeout<I, O> {
+        private final long duration;
+        private final AutoState<I, O> target;
+
+        private StateTimeout(long duration, AutoState<I, O> target) {
+            this.duration = duration;
+            this.target = target;
+        }
+    }
+}
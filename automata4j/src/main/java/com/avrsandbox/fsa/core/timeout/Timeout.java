@@ -0,0 +1,118 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.timeout;
+
+/**
+ * A reusable timer task scheduled on a {@link TimingWheel}, the timeout is an intrusive node of the wheel slots,
+ * so scheduling and cancelling a timeout doesn't allocate.
+ *
+ * <p>
+ * A timeout is scheduled on a single wheel at a time, scheduling an armed timeout re-schedules it.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class Timeout {
+
+    static final int IDLE = 0;
+    static final int ARMED = 1;
+    static final int EXPIRED = 2;
+
+    /**
+     * The task to run when this timeout expires.
+     */
+    protected final Runnable task;
+
+    /* intrusive links of the wheel slot, guarded by the wheel lock */
+    Timeout previous;
+    Timeout next;
+    long deadline;
+    TimingWheel wheel;
+    volatile int state = IDLE;
+
+    /**
+     * Instantiates a timeout with a task.
+     *
+     * @param task the task to run on the wheel thread when this timeout expires (not null)
+     */
+    public Timeout(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Cannot accept null timeout tasks!");
+        }
+        this.task = task;
+    }
+
+    /**
+     * Cancels this timeout if it's scheduled, and clears its expired flag if it has expired.
+     *
+     * @return true if a scheduled timeout is cancelled, false otherwise
+     */
+    public boolean cancel() {
+        final TimingWheel wheel = this.wheel;
+        if (wheel == null) {
+            state = IDLE;
+            return false;
+        }
+        return wheel.cancel(this);
+    }
+
+    /**
+     * Tests whether this timeout is scheduled and hasn't expired yet.
+     *
+     * @return true if the timeout is armed, false otherwise
+     */
+    public boolean isArmed() {
+        return state == ARMED;
+    }
+
+    /**
+     * Tests whether this timeout has expired and hasn't been cancelled nor re-scheduled since.
+     *
+     * @return true if the timeout has expired, false otherwise
+     */
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+
+    /**
+     * Consumes the expired flag of this timeout.
+     *
+     * @return true if the timeout has expired and its flag is consumed by this call, false otherwise
+     */
+    public boolean consumeExpiration() {
+        final TimingWheel wheel = this.wheel;
+        if (wheel == null) {
+            return false;
+        }
+        return wheel.consume(this);
+    }
+}
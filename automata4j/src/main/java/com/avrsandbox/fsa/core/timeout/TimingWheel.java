@@ -0,0 +1,276 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.timeout;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hierarchical timing wheel that schedules and cancels {@link Timeout}s in O(1), regardless of the number
+ * of the armed timeouts.
+ *
+ * <p>
+ * The wheel has 4 levels of 64 slots each, a level-0 slot spans a single tick and a level-n slot spans 64^n ticks;
+ * a timeout is linked into the slot of the lowest level that covers its delay, and cascades to the lower levels
+ * as the wheel advances, timeouts beyond the wheel range are re-cascaded from the top level until they're due.
+ * </p>
+ *
+ * <p>
+ * The wheel is advanced either by its own daemon thread using {@link TimingWheel#start()}, or manually using
+ * {@link TimingWheel#advance(long)}; the expired tasks run on the advancing thread.
+ * </p>
+ *
+ * @author pavl_g
+ */
+public class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickNanos;
+    private final long startNanos;
+    /* sentinel heads of the circular slot lists */
+    private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+    private long tick;
+    private long size;
+    private volatile Thread ticker;
+
+    /**
+     * Instantiates a timing wheel with a tick duration.
+     *
+     * @param tickDuration the duration of a single tick, i.e: the timeouts resolution (positive)
+     * @param unit the unit of the tick duration
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive!");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = System.nanoTime();
+        for (Timeout[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                final Timeout head = new Timeout(() -> { });
+                head.previous = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the shared timing wheel, with a 1 millisecond tick, started on first use.
+     *
+     * @return the shared timing wheel
+     */
+    public static TimingWheel getShared() {
+        return Shared.WHEEL;
+    }
+
+    /**
+     * Schedules a timeout to expire after a delay, re-scheduling it if it's already armed.
+     *
+     * @param timeout the timeout to schedule
+     * @param delay the delay after which the timeout expires
+     * @param unit the unit of the delay
+     */
+    public void schedule(Timeout timeout, long delay, TimeUnit unit) {
+        final long delayTicks = Math.max(1, (unit.toNanos(delay) + tickNanos - 1) / tickNanos);
+        synchronized (this) {
+            if (timeout.wheel != null && timeout.wheel != this) {
+                throw new IllegalStateException("Timeout is scheduled on another wheel!");
+            }
+            if (timeout.state == Timeout.ARMED) {
+                unlink(timeout);
+            }
+            timeout.wheel = this;
+            timeout.deadline = tick + delayTicks;
+            timeout.state = Timeout.ARMED;
+            link(timeout);
+            size++;
+        }
+    }
+
+    /**
+     * Advances the wheel up to a time, and runs the expired tasks on the calling thread.
+     *
+     * @param nanoTime the time to advance to, in {@link System#nanoTime()} units
+     */
+    public void advance(long nanoTime) {
+        final long target = (nanoTime - startNanos) / tickNanos;
+        for (;;) {
+            final Timeout expired;
+            synchronized (this) {
+                expired = pollExpired(target);
+                if (expired == null) {
+                    return;
+                }
+            }
+            try {
+                expired.task.run();
+            } catch (RuntimeException e) {
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+
+    /**
+     * Starts a daemon thread that advances the wheel every tick.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = new Thread(() -> {
+            while (ticker == Thread.currentThread()) {
+                advance(System.nanoTime());
+                LockSupport.parkNanos(this, tickNanos);
+            }
+        }, "Automata4j-Timing-Wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Stops the daemon thread of this wheel, the armed timeouts remain scheduled.
+     */
+    public synchronized void stop() {
+        final Thread thread = ticker;
+        ticker = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Retrieves the number of the armed timeouts.
+     *
+     * @return the number of the armed timeouts
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    synchronized boolean cancel(Timeout timeout) {
+        if (timeout.state != Timeout.ARMED) {
+            timeout.state = Timeout.IDLE;
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        timeout.state = Timeout.IDLE;
+        return true;
+    }
+
+    synchronized boolean consume(Timeout timeout) {
+        if (timeout.state != Timeout.EXPIRED) {
+            return false;
+        }
+        timeout.state = Timeout.IDLE;
+        return true;
+    }
+
+    /**
+     * Advances the wheel tick by tick until an expired timeout is found or the target tick is reached.
+     */
+    private Timeout pollExpired(long target) {
+        for (;;) {
+            final Timeout head = slots[0][(int) (tick & SLOT_MASK)];
+            if (head.next != head) {
+                final Timeout expired = head.next;
+                unlink(expired);
+                size--;
+                expired.state = Timeout.EXPIRED;
+                return expired;
+            }
+            if (tick >= target) {
+                return null;
+            }
+            tick++;
+            if ((tick & SLOT_MASK) == 0) {
+                cascade(1);
+            }
+        }
+    }
+
+    /**
+     * Moves the timeouts of the current slot of a level into the lower levels.
+     */
+    private void cascade(int level) {
+        final int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (index == 0 && level + 1 < LEVELS) {
+            cascade(level + 1);
+        }
+        final Timeout head = slots[level][index];
+        Timeout timeout = head.next;
+        head.next = head;
+        head.previous = head;
+        while (timeout != head) {
+            final Timeout next = timeout.next;
+            link(timeout);
+            timeout = next;
+        }
+    }
+
+    private void link(Timeout timeout) {
+        final long delay = Math.max(0, timeout.deadline - tick);
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        final long deadline = delay == 0 ? tick : timeout.deadline;
+        final Timeout head = slots[level][(int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        timeout.previous = head.previous;
+        timeout.next = head;
+        head.previous.next = timeout;
+        head.previous = timeout;
+    }
+
+    private static void unlink(Timeout timeout) {
+        timeout.previous.next = timeout.next;
+        timeout.next.previous = timeout.previous;
+        timeout.previous = null;
+        timeout.next = null;
+    }
+
+    /**
+     * Lazy holder of the shared wheel.
+     */
+    private static final class Shared {
+        private static final TimingWheel WHEEL = new TimingWheel(1, TimeUnit.MILLISECONDS);
+
+        static {
+            WHEEL.start();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.transition;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+
+/**
+ * A single run of a {@link CompiledCascade}, the cursor is a {@link TransitionPath} that advances an index
+ * over the compiled states instead of polling them, so the cascade is left intact; use
+ * {@link CascadeCursor#reset()} to replay it.
+ *
+ * <p>
+ * The cursor is run like a {@link CascadedTransition}, e.g: using
+ * {@link com.avrsandbox.fsa.core.TransitionalManager#transit(TransitionPath, com.avrsandbox.fsa.core.state.TransitionListener)}
+ * and {@link com.avrsandbox.fsa.core.TransitionalManager#tryTransit(com.avrsandbox.fsa.core.state.TransitionListener)};
+ * the compiled states cannot be modified through it. A cursor is not thread-safe, each concurrent run has its own cursor.
+ * </p>
+ *
+ * @param <I> the autoStates input type
+ * @param <O> the autoStates output type
+ * @author pavl_g
+ */
+public final class CascadeCursor<I, O> extends TransitionPath<I, O> {
+
+    private final CompiledCascade<I, O> cascade;
+    private int index;
+
+    CascadeCursor(CompiledCascade<I, O> cascade) {
+        super(cascade.getName());
+        this.cascade = cascade;
+    }
+
+    /**
+     * Advances to the next state of the cascade.
+     *
+     * @return the next state of the cascade, or null if the run is over
+     */
+    @Override
+    public AutoState<I, O> getPresentState() {
+        return this.presentState = advance();
+    }
+
+    /**
+     * Advances to the next state of the cascade.
+     *
+     * @return the next state of the cascade, or null if the run is over
+     */
+    @Override
+    public AutoState<I, O> getNextState() {
+        return this.nextState = advance();
+    }
+
+    @Override
+    public AutoState<I, O> pollNextState() {
+        return getNextState();
+    }
+
+    @Override
+    public boolean hasNextState() {
+        return index < cascade.size();
+    }
+
+    @Override
+    public AutoState<I, O> peekPresentState() {
+        return cascade.stateAt(index);
+    }
+
+    @Override
+    public AutoState<I, O> peekNextState() {
+        return cascade.stateAt(index + 1);
+    }
+
+    /**
+     * Unsupported, the compiled cascade is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void assignNextState(AutoState<I, O> nextState) {
+        throw new UnsupportedOperationException("Compiled cascades are immutable!");
+    }
+
+    /**
+     * Unsupported, the compiled cascade is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void assignPresentState(AutoState<I, O> presentState) {
+        throw new UnsupportedOperationException("Compiled cascades are immutable!");
+    }
+
+    /**
+     * Rewinds this run to the first state of the cascade.
+     */
+    public void reset() {
+        index = 0;
+        removeAll();
+    }
+
+    /**
+     * Retrieves the number of the states this run has advanced over.
+     *
+     * @return the cursor position in the range [0, size]
+     */
+    public int getPosition() {
+        return index;
+    }
+
+    /**
+     * Retrieves the compiled cascade of this run.
+     *
+     * @return the compiled cascade object
+     */
+    public CompiledCascade<I, O> getCascade() {
+        return cascade;
+    }
+
+    private AutoState<I, O> advance() {
+        final AutoState<I, O> autoState = cascade.stateAt(index);
+        if (autoState != null) {
+            index++;
+        }
+        return autoState;
+    }
+}
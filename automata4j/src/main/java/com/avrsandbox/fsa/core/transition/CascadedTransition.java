@@ -31,10 +31,12 @@
 
 package com.avrsandbox.fsa.core.transition;
 
+import com.avrsandbox.fsa.core.jfr.FlightEvents;
 import com.avrsandbox.fsa.core.state.AutoState;
 import com.avrsandbox.fsa.core.state.NextStateNotFoundException;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -70,6 +72,16 @@ public class CascadedTransition<I, O> extends TransitionPath<I, O> {
      */
     protected Queue<AutoState> autoStatesCascade;
 
+    /**
+     * The flight recorder drain event of the running cascade, null if the event is disabled.
+     */
+    private Object drainEvent;
+
+    /**
+     * The number of states polled since the running cascade has begun.
+     */
+    private int polledStates;
+
     /**
      * Instantiates a cascaded transition with the default queue implementation:
      * {@link ArrayDeque}.
@@ -150,7 +162,7 @@ public class CascadedTransition<I, O> extends TransitionPath<I, O> {
      */
     @Override
     public AutoState<I, O> getPresentState() {
-        return this.presentState = autoStatesCascade.poll();
+        return this.presentState = poll();
     }
 
     /**
@@ -167,7 +179,67 @@ public class CascadedTransition<I, O> extends TransitionPath<I, O> {
      */
     @Override
     public AutoState<I, O> getNextState() {
-        return this.nextState = autoStatesCascade.poll();
+        return this.nextState = poll();
+    }
+
+    /**
+     * Polls the first state in a First-in-First-out (FIFO) order, this is equivalent to
+     * {@link CascadedTransition#getNextState()}, it never throws on a drained cascade.
+     *
+     * @return a reference to the polled auto state, or null if the cascade is drained
+     */
+    @Override
+    public AutoState<I, O> pollNextState() {
+        return this.nextState = poll();
+    }
+
+    /**
+     * Polls the first state of the cascade, emitting a {@link com.avrsandbox.fsa.core.jfr.CascadeDrainEvent}
+     * when the cascade is drained.
+     *
+     * @return a reference to the polled auto state, or null if the cascade is empty
+     */
+    private AutoState<I, O> poll() {
+        if (drainEvent == null) {
+            drainEvent = FlightEvents.beginCascadeDrain();
+        }
+        final AutoState<I, O> autoState = autoStatesCascade.poll();
+        if (autoState != null) {
+            polledStates++;
+        }
+        if (autoStatesCascade.isEmpty()) {
+            if (drainEvent != null) {
+                FlightEvents.commitCascadeDrain(drainEvent, name, polledStates);
+                drainEvent = null;
+            }
+            polledStates = 0;
+        }
+        return autoState;
+    }
+
+    /**
+     * Retrieves the first state in the cascade without polling it.
+     *
+     * @return a reference to the first state in the cascade, or null if the cascade is empty
+     */
+    @Override
+    public AutoState<I, O> peekPresentState() {
+        return autoStatesCascade.peek();
+    }
+
+    /**
+     * Retrieves the second state in the cascade without polling it.
+     *
+     * @return a reference to the second state in the cascade, or null if the cascade has less than 2 states
+     */
+    @Override
+    public AutoState<I, O> peekNextState() {
+        final Iterator<AutoState> iterator = autoStatesCascade.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        iterator.next();
+        return iterator.hasNext() ? iterator.next() : null;
     }
 
     /**
@@ -0,0 +1,88 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.transition;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Queue;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A {@link CascadedTransition} that coalesces its pending states by key, keeping only the latest (or the merged)
+ * state per key, so a burst of superseded inputs costs work proportional to the distinct keys rather than
+ * the raw events.
+ *
+ * <p>
+ * The cascade is backed by a {@link CoalescingQueue}, a coalesced state keeps the cascade position of the first
+ * pending state of its key. The cascade isn't a {@link java.util.Deque}, thus assigning a present state
+ * isn't supported.
+ * </p>
+ *
+ * @param <I> the autoStates input type
+ * @param <O> the autoStates output type
+ * @author pavl_g
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class CoalescingCascadedTransition<I, O> extends CascadedTransition<I, O> {
+
+    /**
+     * Instantiates a coalescing cascade keeping the latest state per key.
+     *
+     * @param name the name of this transition path cascade
+     * @param keyFunction extracts the coalescing key of a state, e.g: the sensor id of the state input (not null)
+     */
+    public CoalescingCascadedTransition(String name, Function<AutoState<I, O>, ?> keyFunction) {
+        this(name, keyFunction, null);
+    }
+
+    /**
+     * Instantiates a coalescing cascade merging the states of the same key.
+     *
+     * @param name the name of this transition path cascade
+     * @param keyFunction extracts the coalescing key of a state, e.g: the sensor id of the state input (not null)
+     * @param mergeFunction merges the pending state (first argument) with the assigned one (second argument),
+     *                      or null to keep the assigned one
+     */
+    public CoalescingCascadedTransition(String name, Function<AutoState<I, O>, ?> keyFunction,
+                                        BinaryOperator<AutoState<I, O>> mergeFunction) {
+        super(name, (Queue) new CoalescingQueue<>(keyFunction, mergeFunction));
+    }
+
+    /**
+     * Retrieves the number of the assigned states that have been coalesced into pending ones.
+     *
+     * @return the number of the coalesced states
+     */
+    public long getCoalescedCount() {
+        return ((CoalescingQueue) autoStatesCascade).getCoalescedCount();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.transition;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A FIFO queue that coalesces its pending elements by key, offering an element whose key is already pending
+ * supersedes the pending element in place, so the queue holds at most one element per distinct key.
+ *
+ * <p>
+ * The queue is indexed by a hash table linked in the insertion order, so offering, coalescing and polling
+ * are all O(1); a superseded element keeps the queue position of the first pending element of its key,
+ * so a bursting key never starves the other keys. This queue is not thread-safe.
+ * </p>
+ *
+ * @param <K> the coalescing key type
+ * @param <E> the elements type
+ * @author pavl_g
+ */
+public class CoalescingQueue<K, E> extends AbstractQueue<E> {
+
+    private final LinkedHashMap<K, E> pending = new LinkedHashMap<>();
+    private final Function<? super E, ? extends K> keyFunction;
+    private final BinaryOperator<E> mergeFunction;
+    private long coalescedCount;
+
+    /**
+     * Instantiates a coalescing queue keeping the latest element per key.
+     *
+     * @param keyFunction extracts the coalescing key of an element (not null)
+     */
+    public CoalescingQueue(Function<? super E, ? extends K> keyFunction) {
+        this(keyFunction, null);
+    }
+
+    /**
+     * Instantiates a coalescing queue merging the elements of the same key.
+     *
+     * @param keyFunction extracts the coalescing key of an element (not null)
+     * @param mergeFunction merges the pending element (first argument) with the offered one (second argument),
+     *                      into a non-null element, or null to keep the offered one
+     */
+    public CoalescingQueue(Function<? super E, ? extends K> keyFunction, BinaryOperator<E> mergeFunction) {
+        if (keyFunction == null) {
+            throw new IllegalArgumentException("Cannot accept null key functions!");
+        }
+        this.keyFunction = keyFunction;
+        this.mergeFunction = mergeFunction;
+    }
+
+    /**
+     * Offers an element, superseding the pending element of the same key if any.
+     *
+     * @param element the element to offer (not null)
+     * @return true always, the queue is unbounded
+     */
+    @Override
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("Cannot accept null elements!");
+        }
+        final K key = keyFunction.apply(element);
+        final E superseded = pending.get(key);
+        if (superseded == null) {
+            pending.put(key, element);
+            return true;
+        }
+        final E merged = mergeFunction == null ? element : mergeFunction.apply(superseded, element);
+        if (merged == null) {
+            throw new NullPointerException("Cannot accept null merged elements!");
+        }
+        /* replacing the value of a linked hash map keeps the key at its insertion position */
+        pending.put(key, merged);
+        coalescedCount++;
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        final Iterator<Map.Entry<K, E>> iterator = pending.entrySet().iterator();
+        final E element = iterator.next().getValue();
+        iterator.remove();
+        return element;
+    }
+
+    @Override
+    public E peek() {
+        return pending.isEmpty() ? null : pending.values().iterator().next();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return pending.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return pending.size();
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+    }
+
+    /**
+     * Tests whether an element of a key is pending.
+     *
+     * @param key the coalescing key
+     * @return true if an element of the key is pending, false otherwise
+     */
+    public boolean containsKey(K key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Retrieves the number of the offered elements that have been coalesced into pending ones.
+     *
+     * @return the number of the coalesced elements
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, The AvrSandbox Project, Automata4j
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.avrsandbox.fsa.core.transition;
+
+import com.avrsandbox.fsa.core.state.AutoState;
+import java.util.Collection;
+
+/**
+ * An immutable cascade of states compiled into an array, a compiled cascade is a template that is run
+ * through lightweight {@link CascadeCursor}s, so the same sequence can be replayed, or run for many
+ * entities at once, without re-enqueueing the states.
+ *
+ * <p>
+ * A compiled cascade is immutable, and a cursor is a single object, so many runs share one template
+ * without copying it. However, the runs share the state objects too, and a transit sets the input of
+ * the dispatched state, so concurrent runs are safe only if the states keep no per-run data at all,
+ * i.e: they neither depend on their input nor carry a mutable state; otherwise run the cursors sequentially,
+ * or compile a cascade of distinct state objects per concurrent run.
+ * </p>
+ *
+ * @param <I> the autoStates input type
+ * @param <O> the autoStates output type
+ * @author pavl_g
+ */
+public final class CompiledCascade<I, O> {
+
+    private final String name;
+    private final AutoState<I, O>[] states;
+
+    private CompiledCascade(String name, AutoState<I, O>[] states) {
+        if (name == null) {
+            throw new IllegalArgumentException("Cannot accept null names!");
+        }
+        for (Object state : states) {
+            if (state == null) {
+                throw new IllegalArgumentException("Cannot accept null states!");
+            }
+        }
+        this.name = name;
+        this.states = states;
+    }
+
+    /**
+     * Compiles a cascade out of states in order.
+     *
+     * @param name the name of the cascade runs (not null)
+     * @param states the states of the cascade in order (not null)
+     * @param <I> the autoStates input type
+     * @param <O> the autoStates output type
+     * @return a new compiled cascade
+     */
+    @SafeVarargs
+    public static <I, O> CompiledCascade<I, O> of(String name, AutoState<I, O>... states) {
+        final AutoState<I, O>[] copy = newArray(states.length);
+        for (int i = 0; i < states.length; i++) {
+            copy[i] = states[i];
+        }
+        return new CompiledCascade<>(name, copy);
+    }
+
+    /**
+     * Compiles a cascade out of a collection of states in its iteration order.
+     *
+     * @param name the name of the cascade runs (not null)
+     * @param states the states of the cascade (not null)
+     * @param <I> the autoStates input type
+     * @param <O> the autoStates output type
+     * @return a new compiled cascade
+     */
+    public static <I, O> CompiledCascade<I, O> of(String name, Collection<? extends AutoState<I, O>> states) {
+        return new CompiledCascade<>(name, toArray(states));
+    }
+
+    /**
+     * Compiles a cascade out of the pending states of a {@link CascadedTransition} without draining it.
+     *
+     * @param cascade the cascade to snapshot (not null)
+     * @param <I> the autoStates input type
+     * @param <O> the autoStates output type
+     * @return a new compiled cascade named after the cascade
+     */
+    public static <I, O> CompiledCascade<I, O> of(CascadedTransition<I, O> cascade) {
+        return new CompiledCascade<>(cascade.getName(), toArray(cascade.getAutoStatesCascade()));
+    }
+
+    /**
+     * Creates a new run of this cascade positioned at its first state.
+     *
+     * @return a new cursor object
+     */
+    public CascadeCursor<I, O> newCursor() {
+        return new CascadeCursor<>(this);
+    }
+
+    /**
+     * Retrieves a state of this cascade.
+     *
+     * @param index the state index in the range [0, size)
+     * @return the state at the index
+     */
+    public AutoState<I, O> getState(int index) {
+        return states[index];
+    }
+
+    /**
+     * Retrieves the number of the states of this cascade.
+     *
+     * @return the number of the states
+     */
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * Retrieves the name of the cascade runs.
+     *
+     * @return the cascade name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves a state by index, or null if the index is past the end of the cascade.
+     */
+    AutoState<I, O> stateAt(int index) {
+        return index < states.length ? states[index] : null;
+    }
+
+    private static <I, O> AutoState<I, O>[] toArray(Collection<?> states) {
+        return states.toArray(CompiledCascade.<I, O>newArray(states.size()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, O> AutoState<I, O>[] newArray(int length) {
+        return (AutoState<I, O>[]) new AutoState<?, ?>[length];
+    }
+}
@@ -89,4 +89,29 @@ public class ConcurrentCascadedTransition<I, O> extends CascadedTransition<I, O>
     public synchronized AutoState<I, O> getNextState() throws NextStateNotFoundException {
         return super.getNextState();
     }
+
+    @Override
+    public synchronized AutoState<I, O> pollNextState() {
+        return super.pollNextState();
+    }
+
+    @Override
+    public synchronized void assignPresentState(AutoState<I, O> presentState) {
+        super.assignPresentState(presentState);
+    }
+
+    @Override
+    public synchronized AutoState<I, O> getPresentState() {
+        return super.getPresentState();
+    }
+
+    @Override
+    public synchronized AutoState<I, O> peekPresentState() {
+        return super.peekPresentState();
+    }
+
+    @Override
+    public synchronized AutoState<I, O> peekNextState() {
+        return super.peekNextState();
+    }
 }
@@ -97,6 +97,17 @@ public class Transition<I, O> {
         return nextState;
     }
 
+    /**
+     * Retrieves the next state and removes it from this transition, without throwing if there is none.
+     *
+     * @return the next state, or null if no next state is assigned
+     */
+    public AutoState<I, O> pollNextState() {
+        final AutoState<I, O> nextState = this.nextState;
+        this.nextState = null;
+        return nextState;
+    }
+
     /**
      * Removes the state from the heap memory.
      * 
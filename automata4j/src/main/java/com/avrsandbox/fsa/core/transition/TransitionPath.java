@@ -109,6 +109,24 @@ public class TransitionPath<I, O> extends Transition<I, O> {
         return presentState;
     }
 
+    /**
+     * Retrieves the present-state object without consuming it.
+     *
+     * @return the present-state object
+     */
+    public AutoState<I, O> peekPresentState() {
+        return getPresentState();
+    }
+
+    /**
+     * Retrieves the next-state object without consuming it.
+     *
+     * @return the next-state object
+     */
+    public AutoState<I, O> peekNextState() {
+        return getNextState();
+    }
+
     /**
      * Sets the name of this transition path.
      *
@@ -31,6 +31,8 @@
 
 package com.avrsandbox.fsa.util;
 
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,12 +41,27 @@ import java.util.logging.Logger;
  * {@link AutomataLogger#setEnabled(boolean)} to control whether to
  * enable or disable this utility.
  *
+ * <p>
+ * The {@link Supplier} and the parameterized overloads defer building the messages until an event is
+ * actually logged, the parameterized messages follow the {@link java.text.MessageFormat} patterns (e.g: "{0}").
+ * </p>
+ *
+ * <p>
+ * In the asynchronous mode, {@link AutomataLogger#setAsynchronous(boolean)}, the events are recorded into
+ * a preallocated ring buffer and they are formatted and logged by a daemon thread, events are dropped if the
+ * ring buffer is full, see {@link AutomataLogger#getDroppedCount()}. The message parameters are formatted
+ * on the daemon thread too, so mutable parameters should be passed as snapshots (e.g: {@link String#valueOf(Object)})
+ * to log their state at the time of the event.
+ * </p>
+ *
  * @author pavl_g
  */
 public final class AutomataLogger {
 
     private static final Logger logger = Logger.getLogger("Automata4j-core");
-    private static boolean enabled;
+    private static final int RING_CAPACITY = 1 << 12;
+    private static volatile boolean enabled;
+    private static volatile LogRing ring;
 
     private AutomataLogger() {
     }
@@ -58,10 +75,58 @@ public final class AutomataLogger {
      * @param msg a message to log
      */
     public static void log(Level level, String sourceClass, String sourceMethod, String msg) {
-        if (!enabled) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        dispatch(level, sourceClass, sourceMethod, msg, null, null, null, 0);
+    }
+
+    /**
+     * Logs an event with a logging level and a lazily supplied message.
+     *
+     * @param level the logging level
+     * @param sourceClass the class source
+     * @param sourceMethod the dispatching method
+     * @param msgSupplier a supplier of the message to log, invoked only if the event is logged
+     */
+    public static void log(Level level, String sourceClass, String sourceMethod, Supplier<String> msgSupplier) {
+        if (!isLoggable(level)) {
             return;
         }
-        logger.logp(level, sourceClass, sourceMethod, msg);
+        dispatch(level, sourceClass, sourceMethod, msgSupplier, null, null, null, 0);
+    }
+
+    /**
+     * Logs an event with a logging level and a parameterized message.
+     *
+     * @param level the logging level
+     * @param sourceClass the class source
+     * @param sourceMethod the dispatching method
+     * @param msg a message pattern to log, e.g: "Assigned a new state {0}"
+     * @param param the message parameter
+     */
+    public static void log(Level level, String sourceClass, String sourceMethod, String msg, Object param) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        dispatch(level, sourceClass, sourceMethod, msg, param, null, null, 1);
+    }
+
+    /**
+     * Logs an event with a logging level and a parameterized message.
+     *
+     * @param level the logging level
+     * @param sourceClass the class source
+     * @param sourceMethod the dispatching method
+     * @param msg a message pattern to log, e.g: "Transited from {0} into {1}"
+     * @param param0 the first message parameter
+     * @param param1 the second message parameter
+     */
+    public static void log(Level level, String sourceClass, String sourceMethod, String msg, Object param0, Object param1) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        dispatch(level, sourceClass, sourceMethod, msg, param0, param1, null, 2);
     }
 
     /**
@@ -74,10 +139,20 @@ public final class AutomataLogger {
      * @param throwable a throwable event
      */
     public static void log(Level level, String sourceClass, String sourceMethod, String msg, Throwable throwable) {
-        if (!enabled) {
+        if (!isLoggable(level)) {
             return;
         }
-        logger.logp(level, sourceClass, sourceMethod, msg, throwable);
+        dispatch(level, sourceClass, sourceMethod, msg, null, null, throwable, 0);
+    }
+
+    /**
+     * Tests whether an event of a logging level would be logged, use this to guard expensive logging code.
+     *
+     * @param level the logging level
+     * @return true if the event logger is enabled and the level is loggable, false otherwise
+     */
+    public static boolean isLoggable(Level level) {
+        return enabled && logger.isLoggable(level);
     }
 
     /**
@@ -97,4 +172,205 @@ public final class AutomataLogger {
     public static boolean isEnabled() {
         return enabled;
     }
+
+    /**
+     * Enables/Disables the asynchronous mode, disabling the asynchronous mode logs the pending events
+     * on the calling thread.
+     *
+     * @param asynchronous true to log the events on a daemon thread, false to log them on the calling threads
+     */
+    public static synchronized void setAsynchronous(boolean asynchronous) {
+        if (asynchronous == (ring != null)) {
+            return;
+        }
+        if (asynchronous) {
+            ring = new LogRing(RING_CAPACITY);
+            ring.start();
+        } else {
+            final LogRing ring = AutomataLogger.ring;
+            AutomataLogger.ring = null;
+            ring.stop();
+        }
+    }
+
+    /**
+     * Tests whether the asynchronous mode is enabled.
+     *
+     * @return true if the events are logged on a daemon thread, false otherwise
+     */
+    public static boolean isAsynchronous() {
+        return ring != null;
+    }
+
+    /**
+     * Retrieves the number of the events dropped by the asynchronous mode, since it has been enabled.
+     *
+     * @return the number of the dropped events
+     */
+    public static long getDroppedCount() {
+        final LogRing ring = AutomataLogger.ring;
+        return ring == null ? 0 : ring.getDroppedCount();
+    }
+
+    private static void dispatch(Level level, String sourceClass, String sourceMethod, Object msg,
+                                 Object param0, Object param1, Throwable throwable, int params) {
+        final LogRing ring = AutomataLogger.ring;
+        if (ring != null) {
+            ring.offer(level, sourceClass, sourceMethod, msg, param0, param1, throwable, params);
+            return;
+        }
+        publish(level, sourceClass, sourceMethod, msg, param0, param1, throwable, params);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void publish(Level level, String sourceClass, String sourceMethod, Object msg,
+                                Object param0, Object param1, Throwable throwable, int params) {
+        final String message = msg instanceof Supplier ? ((Supplier<String>) msg).get() : (String) msg;
+        if (throwable != null) {
+            logger.logp(level, sourceClass, sourceMethod, message, throwable);
+        } else if (params == 1) {
+            logger.logp(level, sourceClass, sourceMethod, message, param0);
+        } else if (params == 2) {
+            logger.logp(level, sourceClass, sourceMethod, message, new Object[] {param0, param1});
+        } else {
+            logger.logp(level, sourceClass, sourceMethod, message);
+        }
+    }
+
+    /**
+     * A bounded ring of preallocated log records drained by a daemon thread.
+     */
+    private static final class LogRing implements Runnable {
+
+        private final Record[] records;
+        private final int mask;
+        private final Record drained = new Record();
+        private final Thread drainer;
+        private int head;
+        private int size;
+        private long dropped;
+        private volatile boolean running = true;
+
+        private LogRing(int capacity) {
+            records = new Record[capacity];
+            for (int i = 0; i < capacity; i++) {
+                records[i] = new Record();
+            }
+            mask = capacity - 1;
+            drainer = new Thread(this, "Automata4j-Logger");
+            drainer.setDaemon(true);
+        }
+
+        private void start() {
+            drainer.start();
+        }
+
+        private void stop() {
+            running = false;
+            LockSupport.unpark(drainer);
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            /* logs the events offered after the drainer has exited */
+            while (poll()) {
+                publishDrained();
+            }
+        }
+
+        private void offer(Level level, String sourceClass, String sourceMethod, Object msg,
+                           Object param0, Object param1, Throwable throwable, int params) {
+            final boolean wasEmpty;
+            synchronized (this) {
+                if (size == records.length) {
+                    dropped++;
+                    return;
+                }
+                wasEmpty = size == 0;
+                records[(head + size++) & mask].set(level, sourceClass, sourceMethod, msg,
+                        param0, param1, throwable, params);
+            }
+            /* the drainer parks only after finding the ring empty, so it's woken on the first offered event only */
+            if (wasEmpty) {
+                LockSupport.unpark(drainer);
+            }
+        }
+
+        private synchronized boolean poll() {
+            if (size == 0) {
+                return false;
+            }
+            final Record record = records[head];
+            drained.set(record.level, record.sourceClass, record.sourceMethod, record.msg,
+                    record.param0, record.param1, record.throwable, record.params);
+            record.clear();
+            head = (head + 1) & mask;
+            size--;
+            return true;
+        }
+
+        private synchronized long getDroppedCount() {
+            return dropped;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                if (!poll()) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                publishDrained();
+            }
+            while (poll()) {
+                publishDrained();
+            }
+        }
+
+        private void publishDrained() {
+            try {
+                drained.publish();
+            } catch (RuntimeException e) {
+                /* a failing message supplier or handler shouldn't kill the drainer, nor fail the stop */
+                logger.logp(Level.WARNING, AutomataLogger.class.getName(), "publishDrained()",
+                        "Failed to log an event!", e);
+            }
+            drained.clear();
+        }
+    }
+
+    /**
+     * A mutable log record, preallocated in the ring buffer.
+     */
+    private static final class Record {
+        private Level level;
+        private String sourceClass;
+        private String sourceMethod;
+        private Object msg;
+        private Object param0;
+        private Object param1;
+        private Throwable throwable;
+        private int params;
+
+        private void set(Level level, String sourceClass, String sourceMethod, Object msg,
+                         Object param0, Object param1, Throwable throwable, int params) {
+            this.level = level;
+            this.sourceClass = sourceClass;
+            this.sourceMethod = sourceMethod;
+            this.msg = msg;
+            this.param0 = param0;
+            this.param1 = param1;
+            this.throwable = throwable;
+            this.params = params;
+        }
+
+        private void publish() {
+            AutomataLogger.publish(level, sourceClass, sourceMethod, msg, param0, param1, throwable, params);
+        }
+
+        private void clear() {
+            set(null, null, null, null, null, null, null, 0);
+        }
+    }
 }